@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.testcontainers.images.RemoteDockerImage;
+import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.TestcontainersConfiguration;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts {@link Oid4vcContainer} repeatedly per configuration variant and
+ * writes time-to-ready ({@code start()} returning) and
+ * time-to-first-{@code getCredentials()} to JSON, to track startup cost
+ * across oid4vc-dev image versions. Needs Docker; not a JMH benchmark,
+ * since every sample takes seconds.
+ *
+ * <pre>
+ * mvn -Pjmh test-compile exec:java@container-startup \
+ *     -Dexec.args="5 target/startup.json ghcr.io/dominikschlosser/oid4vc-dev:v0.14.2"
+ * </pre>
+ *
+ * <p>Arguments: iterations per variant, output file, one or more images.
+ * Images are pulled before measuring. The first start of each variant is
+ * reported separately as the cold start; the distribution covers the warm
+ * starts after it. Reuse variants keep their container between iterations
+ * and are skipped unless {@code testcontainers.reuse.enable=true}; without
+ * it, every iteration would leave another container running.
+ */
+public final class ContainerStartupBenchmark {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private ContainerStartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("usage: ContainerStartupBenchmark <iterations> <output.json> <image>...");
+        }
+        int iterations = Integer.parseInt(args[0]);
+        Path output = Path.of(args[1]);
+
+        List<ImageResult> results = new ArrayList<>();
+        for (int i = 2; i < args.length; i++) {
+            results.add(run(args[i], iterations));
+        }
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        MAPPER.writeValue(output.toFile(), results);
+        System.out.println("Startup results written to " + output);
+    }
+
+    static ImageResult run(String image, int iterations) {
+        long pullStart = System.nanoTime();
+        new RemoteDockerImage(DockerImageName.parse(image)).get();
+        long pullMillis = millisSince(pullStart);
+        boolean reuseEnabled = TestcontainersConfiguration.getInstance().environmentSupportsReuse();
+
+        List<ScenarioResult> scenarios = new ArrayList<>();
+        for (Scenario scenario : Scenario.all()) {
+            if (scenario.reuse() && !reuseEnabled) {
+                System.out.println("Skipping " + scenario.name() + ": testcontainers.reuse.enable is not set");
+                continue;
+            }
+            List<Long> ready = new ArrayList<>();
+            List<Long> firstCredentials = new ArrayList<>();
+            Oid4vcContainer last = null;
+            for (int i = 0; i < iterations; i++) {
+                Oid4vcContainer container = scenario.create(image);
+                long start = System.nanoTime();
+                container.start();
+                ready.add(millisSince(start));
+                container.client().getCredentials();
+                firstCredentials.add(millisSince(start));
+                if (!scenario.reuse()) {
+                    container.stop();
+                }
+                last = container;
+            }
+            if (scenario.reuse() && last != null) {
+                last.stop();
+            }
+            ScenarioResult result = new ScenarioResult(scenario.name(), scenario.customPid(), scenario.statusList(),
+                    scenario.reuse(), Distribution.of(ready), Distribution.of(firstCredentials));
+            System.out.printf("%-40s ready first=%dms p50=%dms  credentials first=%dms p50=%dms%n",
+                    image + " " + scenario.name(), result.timeToReadyMillis().first(),
+                    result.timeToReadyMillis().p50(), result.timeToFirstCredentialsMillis().first(),
+                    result.timeToFirstCredentialsMillis().p50());
+            scenarios.add(result);
+        }
+        return new ImageResult(image, iterations, pullMillis, scenarios);
+    }
+
+    private static long millisSince(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    record Scenario(String name, boolean customPid, boolean statusList, boolean reuse) {
+
+        static List<Scenario> all() {
+            List<Scenario> scenarios = new ArrayList<>();
+            for (boolean reuse : new boolean[] {false, true}) {
+                for (boolean customPid : new boolean[] {false, true}) {
+                    for (boolean statusList : new boolean[] {false, true}) {
+                        String name = (customPid ? "custom-pid" : "default-pid")
+                                + (statusList ? "+status-list" : "")
+                                + (reuse ? "+reuse" : "");
+                        scenarios.add(new Scenario(name, customPid, statusList, reuse));
+                    }
+                }
+            }
+            return scenarios;
+        }
+
+        Oid4vcContainer create(String image) {
+            Oid4vcContainer container = new Oid4vcContainer(image);
+            if (customPid) {
+                container.withPidClaims(new SdJwtPidClaims().givenName("MAX").familyName("POWER"));
+            }
+            if (statusList) {
+                container.withStatusList();
+            }
+            return container.withReuse(reuse);
+        }
+    }
+
+    record ImageResult(String image, int iterations, long imagePullMillis, List<ScenarioResult> scenarios) {
+    }
+
+    record ScenarioResult(String scenario, boolean customPid, boolean statusList, boolean reuse,
+                          Distribution timeToReadyMillis, Distribution timeToFirstCredentialsMillis) {
+    }
+
+    /**
+     * {@code first} is the cold start; the statistics cover the remaining
+     * warm samples, or the first one if there is only one.
+     */
+    record Distribution(long first, double mean, long p50, long p90, long max, List<Long> samples) {
+
+        static Distribution of(List<Long> samples) {
+            List<Long> warm = samples.size() > 1 ? samples.subList(1, samples.size()) : samples;
+            List<Long> sorted = warm.stream().sorted().toList();
+            return new Distribution(samples.getFirst(),
+                    sorted.stream().mapToLong(Long::longValue).average().orElse(0),
+                    percentile(sorted, 50), percentile(sorted, 90), sorted.getLast(), List.copyOf(samples));
+        }
+
+        private static long percentile(List<Long> sorted, double percentile) {
+            int index = (int) Math.ceil(percentile / 100 * sorted.size()) - 1;
+            return sorted.get(Math.max(0, index));
+        }
+    }
+}
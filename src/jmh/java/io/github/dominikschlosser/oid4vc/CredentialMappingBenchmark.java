@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-credential steps of {@link WalletClient#getCredentials()}: mapping one
+ * parsed entry and looking up its format.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CredentialMappingBenchmark {
+
+    private static final String[] WIRE_VALUES = {"dc+sd-jwt", "mso_mdoc", "jwt_vc_json", "unknown"};
+
+    private final Map<String, Object> rawCredential = Map.of(
+            "id", "00000000-0000-0000-0000-000000000001",
+            "format", "dc+sd-jwt",
+            "vct", "urn:eudi:pid:1",
+            "claims", Map.of("given_name", "Erika", "family_name", "Mustermann"));
+    private int next;
+
+    @Benchmark
+    public Credential toCredential() {
+        return WalletClient.toCredential(rawCredential);
+    }
+
+    @Benchmark
+    public CredentialFormat fromWireValue() {
+        return CredentialFormat.fromWireValue(WIRE_VALUES[next++ & 3]);
+    }
+}
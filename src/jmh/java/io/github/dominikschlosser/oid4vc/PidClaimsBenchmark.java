@@ -0,0 +1,68 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PidClaimsBenchmark {
+
+    private SdJwtPidClaims sdJwtClaims;
+    private MdocPidClaims mdocClaims;
+
+    @Setup
+    public void setup() {
+        sdJwtClaims = new SdJwtPidClaims()
+                .givenName("ERIKA")
+                .familyName("MUSTERMANN")
+                .birthdate("1984-01-26")
+                .nationalities("DE")
+                .address("Heidestrasse 17", "Koeln", "51147", "DE");
+        mdocClaims = new MdocPidClaims()
+                .givenName("ERIKA")
+                .familyName("MUSTERMANN")
+                .birthDate("1984-01-26")
+                .nationality("DE")
+                .residentCity("Koeln")
+                .residentPostalCode("51147");
+    }
+
+    @Benchmark
+    public String sdJwtToJson() {
+        return sdJwtClaims.toJson();
+    }
+
+    @Benchmark
+    public String mdocToJson() {
+        return mdocClaims.toJson();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Salt and mint throughput per salt source with one thread per core, where
+ * lock contention in {@link SaltSource#shared()} shows, and with a virtual
+ * thread per mint, where per-thread seeding in {@link SaltSource#threadLocal()}
+ * shows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(Threads.MAX)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaltSourceBenchmark {
+
+    @Param({"shared", "threadLocal", "striped", "batched", "seeded"})
+    public String source;
+
+    private SaltSource saltSource;
+    private SdJwtCredentialTemplate template;
+
+    @Setup
+    public void setup() {
+        saltSource = switch (source) {
+            case "shared" -> SaltSource.shared();
+            case "threadLocal" -> SaltSource.threadLocal();
+            case "striped" -> SaltSource.striped();
+            case "batched" -> SaltSource.batched(64);
+            case "seeded" -> SaltSource.seeded(1);
+            default -> throw new IllegalArgumentException(source);
+        };
+        template = new SdJwtCredentialBuilder()
+                .saltSource(saltSource)
+                .claim("given_name", "Erika")
+                .claim("family_name", "Mustermann")
+                .objectClaim("address", Map.of("locality", "Berlin", "country", "DE", "street", "Heidestr. 17"))
+                .toTemplate();
+    }
+
+    @Benchmark
+    public String nextSalt() {
+        return saltSource.nextSalt();
+    }
+
+    @Benchmark
+    public String mint() {
+        return template.mint();
+    }
+
+    /**
+     * One virtual thread per mint, as in the load drivers and stub servers,
+     * where per-thread sources seed a new DRBG every time.
+     */
+    @Benchmark
+    public String mintOnVirtualThread() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executor.submit(() -> template.mint()).get();
+        }
+    }
+}
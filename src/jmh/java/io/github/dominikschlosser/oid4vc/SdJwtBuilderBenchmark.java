@@ -0,0 +1,74 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SD-JWT minting per signing algorithm, through the builder and through a
+ * precompiled template.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SdJwtBuilderBenchmark {
+
+    @Param({"ES256", "ES384", "ES512", "EdDSA", "RS256"})
+    public String algorithm;
+
+    private SdJwtCredentialBuilder builder;
+    private SdJwtCredentialTemplate template;
+
+    @Setup
+    public void setup() {
+        builder = SdJwtCredentialBuilder.forAlgorithm(JWSAlgorithm.parse(algorithm))
+                .vct("urn:eudi:pid:1")
+                .issuer("https://issuer.example.com")
+                .claim("given_name", "Erika")
+                .claim("family_name", "Mustermann")
+                .objectClaim("address", Map.of("locality", "Berlin", "country", "DE"))
+                .arrayClaim("nationalities", List.of("DE"));
+        template = builder.toTemplate();
+    }
+
+    @Benchmark
+    public String build() {
+        return builder.build();
+    }
+
+    @Benchmark
+    public String mint() {
+        return template.mint();
+    }
+}
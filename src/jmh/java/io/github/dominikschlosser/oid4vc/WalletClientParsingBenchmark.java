@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code GET /api/credentials} response handling against canned bodies.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WalletClientParsingBenchmark {
+
+    private static final String[] FORMATS = {"dc+sd-jwt", "mso_mdoc", "jwt_vc_json"};
+
+    @Param({"10", "1000", "100000"})
+    public int credentials;
+
+    private String body;
+
+    @Setup
+    public void setup() throws Exception {
+        List<Map<String, Object>> raw = new ArrayList<>(credentials);
+        for (int i = 0; i < credentials; i++) {
+            Map<String, Object> credential = new LinkedHashMap<>();
+            credential.put("id", "00000000-0000-0000-0000-" + String.format("%012d", i));
+            credential.put("format", FORMATS[i % FORMATS.length]);
+            credential.put(i % 3 == 1 ? "doctype" : "vct", "urn:eudi:pid:" + (i % 5));
+            credential.put("claims", Map.of(
+                    "given_name", "Holder " + i,
+                    "family_name", "Mustermann",
+                    "birthdate", "1984-01-26",
+                    "address", Map.of("locality", "Berlin", "country", "DE")));
+            raw.add(credential);
+        }
+        body = new ObjectMapper().writeValueAsString(raw);
+    }
+
+    @Benchmark
+    public List<Credential> parseCredentials() {
+        return WalletClient.parseCredentials(body);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * JFR event for one {@link Oid4vcContainer} lifecycle phase:
+ * {@code configure}, {@code start} (from the end of configure until the
+ * container runs, including image pull), {@code ready} (until the wait
+ * strategy passes) and {@code stop}. The start phases follow each other
+ * without overlap.
+ */
+@Name("io.github.dominikschlosser.oid4vc.ContainerLifecycle")
+@Label("Wallet Container Lifecycle")
+@Category({"OID4VC", "Container"})
+final class ContainerLifecycleEvent extends Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Image")
+    String image;
+
+    @Label("Container ID")
+    String containerId;
+
+    @Label("Reused")
+    @Description("Whether Testcontainers reused a running container")
+    boolean reused;
+
+    static ContainerLifecycleEvent begin(String phase) {
+        ContainerLifecycleEvent event = new ContainerLifecycleEvent();
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    void end(DockerImageName image, String containerId, boolean reused) {
+        if (shouldCommit()) {
+            this.image = image.asCanonicalNameString();
+            this.containerId = containerId;
+            this.reused = reused;
+            commit();
+        }
+    }
+}
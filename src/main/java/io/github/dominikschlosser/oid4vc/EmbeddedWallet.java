@@ -0,0 +1,749 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+
+/**
+ * In-JVM stand-in for {@link Oid4vcContainer} that serves the wallet REST API
+ * from memory on the JDK's HTTP server, one virtual thread per request. It
+ * starts in milliseconds and suits tests that only exercise the API contract.
+ *
+ * <p>Differences to the real wallet:
+ * <ul>
+ *   <li>credential offers with a pre-authorized code are redeemed at the
+ *       issuer without transaction code or authorization code flow; other
+ *       offers get one locally minted SD-JWT per configuration ID, with the
+ *       ID as {@code vct}</li>
+ *   <li>presentations answer the request's {@code response_uri} via
+ *       {@code direct_post} without consent handling; SD-JWTs bound to
+ *       {@link #getHolderKey()} get a key-binding JWT</li>
+ *   <li>imported credentials are decoded, not verified</li>
+ * </ul>
+ */
+public class EmbeddedWallet implements AutoCloseable {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final CBORMapper CBOR_MAPPER = new CBORMapper();
+    private static final String PID_VCT = "urn:eu.europa.ec.eudi:pid:1";
+    private static final String PID_DOCTYPE = "eu.europa.ec.eudi.pid.1";
+    private static final String PRE_AUTHORIZED_GRANT = "urn:ietf:params:oauth:grant-type:pre-authorized_code";
+    private static final Set<String> REGISTERED_CLAIMS = Set.of("iss", "iat", "nbf", "exp", "cnf", "vct", "status");
+
+    private final ECKey issuerKey = (ECKey) JwsSupport.generateKey(JWSAlgorithm.ES256);
+    private final ECKey holderKey = (ECKey) JwsSupport.generateKey(JWSAlgorithm.ES256);
+    private final JWSSigner issuerSigner = JwsSupport.signerFor(issuerKey);
+    private final JWSSigner holderSigner = JwsSupport.signerFor(holderKey);
+    private final SdJwtPresenter presenter = new SdJwtPresenter(holderKey);
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private final Map<String, StoredCredential> credentials = new LinkedHashMap<>();
+    private final AtomicReference<Map<String, String>> nextError = new AtomicReference<>();
+
+    private boolean includeDefaultPid = true;
+    private boolean statusList;
+    private PidClaims customPidClaims;
+    private String customPidJson;
+    private volatile CredentialFormat preferredFormat;
+    private int nextStatusIndex;
+    private HttpServer server;
+    private ExecutorService executor;
+    private WalletClient cachedClient;
+
+    public EmbeddedWallet withoutDefaultPid() {
+        this.includeDefaultPid = false;
+        return this;
+    }
+
+    public EmbeddedWallet withPidClaims(PidClaims claims) {
+        this.customPidClaims = claims;
+        return this;
+    }
+
+    public EmbeddedWallet withPidClaims(String json) {
+        this.customPidJson = json;
+        return this;
+    }
+
+    public EmbeddedWallet withStatusList() {
+        this.statusList = true;
+        return this;
+    }
+
+    public EmbeddedWallet withPreferredFormat(CredentialFormat format) {
+        this.preferredFormat = format;
+        return this;
+    }
+
+    public synchronized EmbeddedWallet start() {
+        if (server != null) {
+            throw new IllegalStateException("Embedded wallet already started");
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start embedded wallet", e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        storePid();
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+            server = null;
+            cachedClient = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    public synchronized String getBaseUrl() {
+        if (server == null) {
+            throw new IllegalStateException("Embedded wallet not started");
+        }
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public String getTrustListUrl() {
+        return getBaseUrl() + "/api/trustlist";
+    }
+
+    public String getCredentialsUrl() {
+        return getBaseUrl() + "/api/credentials";
+    }
+
+    public String getStatusListUrl() {
+        return getBaseUrl() + "/api/statuslist";
+    }
+
+    /**
+     * Returns the public key the default PID, the trust list and the status
+     * list are signed with.
+     */
+    public JWK getIssuerKey() {
+        return issuerKey.toPublicJWK();
+    }
+
+    /**
+     * Returns the public wallet key. Bind imported SD-JWTs to it to get
+     * key-binding JWTs in presentations.
+     */
+    public JWK getHolderKey() {
+        return holderKey.toPublicJWK();
+    }
+
+    public synchronized WalletClient client() {
+        if (cachedClient == null) {
+            cachedClient = new WalletClient(getBaseUrl());
+        }
+        return cachedClient;
+    }
+
+    public OfferResponse acceptCredentialOffer(String uri) {
+        return client().acceptCredentialOffer(uri);
+    }
+
+    public PresentationResponse acceptPresentationRequest(String uri) {
+        return client().acceptPresentationRequest(uri);
+    }
+
+    public List<Credential> listCredentials() {
+        return client().getCredentials();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                response = route(exchange.getRequestMethod(), exchange.getRequestURI().getPath(), body);
+            } catch (IllegalArgumentException | SdJwtVerificationException | ParseException e) {
+                response = error(400, e.getMessage());
+            } catch (WalletClientException e) {
+                response = error(502, e.getMessage());
+            } catch (RuntimeException e) {
+                response = error(500, e.toString());
+            }
+            byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            exchange.sendResponseHeaders(response.status(), bytes.length == 0 ? -1 : bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    private Response route(String method, String path, String body) throws IOException, ParseException {
+        if (path.equals("/")) {
+            return text(200, "ok");
+        }
+        if (path.equals("/api/credentials")) {
+            return switch (method) {
+                case "GET" -> json(200, listStored());
+                case "POST" -> json(200, toWire(store(parse(body.strip()))));
+                default -> error(405, method + " not allowed");
+            };
+        }
+        if (path.startsWith("/api/credentials/")) {
+            String[] segments = path.substring("/api/credentials/".length()).split("/");
+            if (segments.length == 1 && method.equals("DELETE")) {
+                return remove(segments[0]) ? json(200, Map.of()) : error(404, "Credential not found");
+            }
+            if (segments.length == 2 && segments[1].equals("status") && method.equals("POST")) {
+                int status = ((Number) readMap(body).get("status")).intValue();
+                return updateStatus(segments[0], status) ? json(200, Map.of()) : error(404, "Credential not found");
+            }
+            return error(404, "Not found");
+        }
+        return switch (method + " " + path) {
+            case "GET /api/trustlist" -> text(200, trustList());
+            case "GET /api/statuslist" -> statusList ? text(200, statusListToken()) : error(404, "Status list disabled");
+            case "POST /api/next-error" -> {
+                Map<String, Object> error = readMap(body);
+                nextError.set(Map.of("error", String.valueOf(error.get("error")),
+                        "error_description", String.valueOf(error.getOrDefault("error_description", ""))));
+                yield json(200, Map.of());
+            }
+            case "DELETE /api/next-error" -> {
+                nextError.set(null);
+                yield json(200, Map.of());
+            }
+            case "PUT /api/config/preferred-format" -> {
+                String format = String.valueOf(readMap(body).get("format"));
+                if (!format.isEmpty() && CredentialFormat.fromWireValue(format) == null) {
+                    throw new IllegalArgumentException("Unknown format: " + format);
+                }
+                preferredFormat = format.isEmpty() ? null : CredentialFormat.fromWireValue(format);
+                yield json(200, Map.of());
+            }
+            case "POST /api/offers" -> json(200, acceptOffer(String.valueOf(readMap(body).get("uri"))));
+            case "POST /api/presentations" -> json(200, acceptPresentation(String.valueOf(readMap(body).get("uri"))));
+            default -> error(404, "Not found");
+        };
+    }
+
+    // ---- credential store ----
+
+    private synchronized StoredCredential store(StoredCredential credential) {
+        StoredCredential stored = credential.withStatusIndex(nextStatusIndex++);
+        credentials.put(stored.id(), stored);
+        return stored;
+    }
+
+    private synchronized List<Map<String, Object>> listStored() {
+        return credentials.values().stream().map(EmbeddedWallet::toWire).toList();
+    }
+
+    private synchronized boolean remove(String id) {
+        return credentials.remove(id) != null;
+    }
+
+    private synchronized boolean updateStatus(String id, int status) {
+        StoredCredential credential = credentials.get(id);
+        if (credential == null) {
+            return false;
+        }
+        credentials.put(id, credential.withStatus(status));
+        return true;
+    }
+
+    private synchronized List<StoredCredential> snapshot() {
+        return List.copyOf(credentials.values());
+    }
+
+    private void storePid() {
+        if (customPidClaims instanceof MdocPidClaims) {
+            MdocCredentialBuilder builder = new MdocCredentialBuilder(issuerKey)
+                    .docType(PID_DOCTYPE)
+                    .deviceKey(holderKey.toPublicJWK());
+            readMap(customPidClaims.toJson()).forEach(builder::claim);
+            store(parse(builder.build()));
+            return;
+        }
+        String json = customPidClaims != null ? customPidClaims.toJson() : customPidJson;
+        if (json == null && !includeDefaultPid) {
+            return;
+        }
+        Map<String, Object> claims = json != null ? readMap(json) : Map.of(
+                "given_name", "ERIKA",
+                "family_name", "MUSTERMANN",
+                "birthdate", "1984-01-26",
+                "nationalities", List.of("DE"));
+        SdJwtCredentialBuilder builder = new SdJwtCredentialBuilder(issuerKey)
+                .vct(PID_VCT)
+                .issuer(getBaseUrl())
+                .holderBindingKey(holderKey.toPublicJWK());
+        claims.forEach(builder::claim);
+        store(parse(builder.build()));
+    }
+
+    private StoredCredential parse(String raw) {
+        if (raw.isEmpty()) {
+            throw new IllegalArgumentException("Empty credential");
+        }
+        if (raw.contains("~")) {
+            Map<String, Object> claims = new LinkedHashMap<>(SdJwtVerifier.decodeClaims(raw));
+            String vct = (String) claims.get("vct");
+            boolean holderBound = claims.get("cnf") instanceof Map<?, ?> cnf
+                    && cnf.get("jwk") instanceof Map<?, ?> jwk
+                    && holderKey.toPublicJWK().toJSONObject().get("x").equals(jwk.get("x"));
+            claims.keySet().removeAll(REGISTERED_CLAIMS);
+            return new StoredCredential(CredentialFormat.SD_JWT, vct, claims, raw, holderBound);
+        }
+        if (raw.chars().filter(c -> c == '.').count() == 2) {
+            try {
+                Map<String, Object> payload = JWSObject.parse(raw).getPayload().toJSONObject();
+                Map<?, ?> vc = payload.get("vc") instanceof Map<?, ?> map ? map : payload;
+                String type = vc.get("type") instanceof List<?> types && !types.isEmpty()
+                        ? String.valueOf(types.getLast())
+                        : null;
+                @SuppressWarnings("unchecked")
+                Map<String, Object> subject = vc.get("credentialSubject") instanceof Map<?, ?> s
+                        ? (Map<String, Object>) s
+                        : Map.of();
+                return new StoredCredential(CredentialFormat.JWT_VC_JSON, type, subject, raw, false);
+            } catch (ParseException e) {
+                throw new IllegalArgumentException("Malformed JWT credential", e);
+            }
+        }
+        return parseMdoc(raw);
+    }
+
+    private static StoredCredential parseMdoc(String raw) {
+        try {
+            JsonNode issuerSigned = CBOR_MAPPER.readTree(Base64.getUrlDecoder().decode(raw));
+            JsonNode payload = CBOR_MAPPER.readTree(issuerSigned.path("issuerAuth").path(2).binaryValue());
+            JsonNode mso = CBOR_MAPPER.readTree(payload.binaryValue());
+            Map<String, Object> claims = new LinkedHashMap<>();
+            for (JsonNode items : issuerSigned.path("nameSpaces")) {
+                for (JsonNode item : items) {
+                    JsonNode decoded = CBOR_MAPPER.readTree(item.binaryValue());
+                    claims.put(decoded.path("elementIdentifier").asText(),
+                            MAPPER.convertValue(decoded.get("elementValue"), Object.class));
+                }
+            }
+            return new StoredCredential(CredentialFormat.MSO_MDOC, mso.path("docType").asText(), claims, raw, false);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Credential is neither SD-JWT, JWT nor mDoc", e);
+        }
+    }
+
+    private static Map<String, Object> toWire(StoredCredential credential) {
+        Map<String, Object> wire = new LinkedHashMap<>();
+        wire.put("id", credential.id());
+        wire.put("format", credential.format().getWireValue());
+        wire.put(switch (credential.format()) {
+            case SD_JWT -> "vct";
+            case MSO_MDOC -> "doctype";
+            case JWT_VC_JSON -> "type";
+        }, credential.type());
+        wire.put("claims", credential.claims());
+        return wire;
+    }
+
+    // ---- OID4VCI / OID4VP ----
+
+    private Map<String, Object> acceptOffer(String uri) throws IOException {
+        Map<String, String> params = queryParameters(uri);
+        String offerJson = params.containsKey("credential_offer")
+                ? params.get("credential_offer")
+                : fetch(required(params, "credential_offer_uri"));
+        Map<String, Object> offer = readMap(offerJson);
+        String issuer = (String) offer.get("credential_issuer");
+        if (!(offer.get("credential_configuration_ids") instanceof List<?> configurationIds)) {
+            throw new IllegalArgumentException("Offer has no credential_configuration_ids");
+        }
+
+        String preAuthorizedCode = offer.get("grants") instanceof Map<?, ?> grants
+                && grants.get(PRE_AUTHORIZED_GRANT) instanceof Map<?, ?> grant
+                ? (String) grant.get("pre-authorized_code")
+                : null;
+        List<String> ids = new ArrayList<>();
+        if (preAuthorizedCode != null && issuer != null && issuer.startsWith("http")) {
+            for (String credential : redeem(issuer, preAuthorizedCode, configurationIds)) {
+                ids.add(store(parse(credential)).id());
+            }
+            return Map.of("credential_ids", ids);
+        }
+        for (Object configurationId : configurationIds) {
+            String credential = new SdJwtCredentialBuilder(issuerKey)
+                    .vct(String.valueOf(configurationId))
+                    .issuer(issuer)
+                    .holderBindingKey(holderKey.toPublicJWK())
+                    .build();
+            ids.add(store(parse(credential)).id());
+        }
+        return Map.of("credential_ids", ids);
+    }
+
+    // pre-authorized code flow with one JWT proof per requested configuration
+    private List<String> redeem(String issuer, String preAuthorizedCode, List<?> configurationIds)
+            throws IOException {
+        Map<String, Object> metadata = readMap(fetch(issuer + "/.well-known/openid-credential-issuer"));
+        String tokenEndpoint = (String) metadata.get("token_endpoint");
+        if (tokenEndpoint == null) {
+            String authorizationServer = metadata.get("authorization_servers") instanceof List<?> servers
+                    && !servers.isEmpty() ? String.valueOf(servers.getFirst()) : issuer;
+            tokenEndpoint = (String) readMap(fetch(authorizationServer + "/.well-known/oauth-authorization-server"))
+                    .get("token_endpoint");
+        }
+        Map<String, Object> token = readMap(post(tokenEndpoint, Map.of(
+                "grant_type", PRE_AUTHORIZED_GRANT,
+                "pre-authorized_code", preAuthorizedCode)));
+        String accessToken = String.valueOf(token.get("access_token"));
+
+        List<String> issued = new ArrayList<>();
+        for (Object configurationId : configurationIds) {
+            Object nonce = token.get("c_nonce");
+            if (nonce == null && metadata.get("nonce_endpoint") != null) {
+                nonce = readMap(send(HttpRequest.newBuilder(URI.create(String.valueOf(metadata.get("nonce_endpoint"))))
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build())).get("c_nonce");
+            }
+            String request = MAPPER.writeValueAsString(Map.of(
+                    "credential_configuration_id", configurationId,
+                    "proofs", Map.of("jwt", List.of(proof(issuer, nonce)))));
+            Map<String, Object> response = readMap(send(HttpRequest.newBuilder(
+                            URI.create(String.valueOf(metadata.get("credential_endpoint"))))
+                    .header("Content-Type", "application/json")
+                    .header("Authorization", "Bearer " + accessToken)
+                    .POST(HttpRequest.BodyPublishers.ofString(request))
+                    .build()));
+            if (response.get("credentials") instanceof List<?> credentials && !credentials.isEmpty()
+                    && credentials.getFirst() instanceof Map<?, ?> first) {
+                issued.add(String.valueOf(first.get("credential")));
+            } else if (response.get("credential") != null) {
+                issued.add(String.valueOf(response.get("credential")));
+            } else {
+                throw new WalletClientException("Credential response without credential: " + response);
+            }
+        }
+        return issued;
+    }
+
+    private String proof(String audience, Object nonce) {
+        JWTClaimsSet.Builder claims = new JWTClaimsSet.Builder()
+                .audience(audience)
+                .issueTime(new Date());
+        if (nonce != null) {
+            claims.claim("nonce", String.valueOf(nonce));
+        }
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.ES256)
+                    .type(new JOSEObjectType("openid4vci-proof+jwt"))
+                    .jwk(holderKey.toPublicJWK())
+                    .build(), claims.build());
+            jwt.sign(holderSigner);
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign key proof", e);
+        }
+    }
+
+    private Map<String, Object> acceptPresentation(String uri) throws IOException, ParseException {
+        Map<String, Object> request = new LinkedHashMap<>(queryParameters(uri));
+        if (request.get("request_uri") instanceof String requestUri) {
+            String requestObject = fetch(requestUri).strip();
+            request.putAll(requestObject.startsWith("{")
+                    ? readMap(requestObject)
+                    : JWSObject.parse(requestObject).getPayload().toJSONObject());
+        }
+        Object responseUri = request.getOrDefault("response_uri", request.get("redirect_uri"));
+        if (responseUri == null) {
+            throw new IllegalArgumentException("Presentation request has no response_uri");
+        }
+
+        Map<String, String> form = new LinkedHashMap<>();
+        Map<String, String> error = nextError.getAndSet(null);
+        if (error != null) {
+            form.putAll(error);
+        } else {
+            form.put("vp_token", vpToken(request));
+        }
+        if (request.get("state") != null) {
+            form.put("state", String.valueOf(request.get("state")));
+        }
+
+        String verifierResponse = post(String.valueOf(responseUri), form);
+        Map<String, Object> result = new LinkedHashMap<>();
+        try {
+            Map<String, Object> parsed = readMap(verifierResponse);
+            if (parsed.get("redirect_uri") != null) {
+                result.put("redirect_uri", parsed.get("redirect_uri"));
+            }
+            result.put("response", parsed);
+        } catch (IllegalArgumentException e) {
+            result.put("response", verifierResponse);
+        }
+        return result;
+    }
+
+    private String vpToken(Map<String, Object> request) throws IOException {
+        String nonce = request.get("nonce") != null ? String.valueOf(request.get("nonce")) : null;
+        String audience = request.get("client_id") != null ? String.valueOf(request.get("client_id")) : null;
+        Object dcql = request.get("dcql_query");
+        if (dcql instanceof String dcqlJson) {
+            dcql = readMap(dcqlJson);
+        }
+        List<StoredCredential> stored = snapshot();
+        if (!(dcql instanceof Map<?, ?> query) || !(query.get("credentials") instanceof List<?> queries)) {
+            StoredCredential credential = stored.stream()
+                    .filter(c -> preferredFormat == null || c.format() == preferredFormat)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Wallet holds no credential to present"));
+            return present(credential, nonce, audience);
+        }
+
+        Map<String, List<String>> token = new LinkedHashMap<>();
+        for (Object entry : queries) {
+            Map<?, ?> credentialQuery = (Map<?, ?>) entry;
+            StoredCredential match = stored.stream()
+                    .filter(c -> matches(c, credentialQuery))
+                    .filter(c -> preferredFormat == null || c.format() == preferredFormat)
+                    .findFirst()
+                    .or(() -> stored.stream().filter(c -> matches(c, credentialQuery)).findFirst())
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "No credential matches DCQL query " + credentialQuery.get("id")));
+            token.put(String.valueOf(credentialQuery.get("id")), List.of(present(match, nonce, audience)));
+        }
+        return MAPPER.writeValueAsString(token);
+    }
+
+    private static boolean matches(StoredCredential credential, Map<?, ?> query) {
+        if (query.get("format") != null && !credential.format().getWireValue().equals(query.get("format"))) {
+            return false;
+        }
+        if (!(query.get("meta") instanceof Map<?, ?> meta)) {
+            return true;
+        }
+        if (meta.get("vct_values") instanceof List<?> vctValues) {
+            return vctValues.contains(credential.type());
+        }
+        if (meta.get("doctype_value") != null) {
+            return meta.get("doctype_value").equals(credential.type());
+        }
+        return true;
+    }
+
+    private String present(StoredCredential credential, String nonce, String audience) {
+        if (credential.holderBound() && nonce != null) {
+            return presenter.presentAll(credential.raw(), nonce, audience);
+        }
+        return credential.raw();
+    }
+
+    // ---- trust list / status list ----
+
+    private String trustList() {
+        return sign(JOSEObjectType.JWT, new JWTClaimsSet.Builder()
+                .issuer(getBaseUrl())
+                .issueTime(new Date())
+                .claim("keys", List.of(issuerKey.toPublicJWK().toJSONObject()))
+                .build());
+    }
+
+    // Token Status List with 2 bits per credential, indexed in import order
+    private String statusListToken() {
+        byte[] statuses;
+        synchronized (this) {
+            statuses = new byte[Math.max(1, (nextStatusIndex + 3) / 4)];
+            for (StoredCredential credential : credentials.values()) {
+                int index = credential.statusIndex();
+                statuses[index / 4] |= (byte) ((credential.status() & 0b11) << ((index % 4) * 2));
+            }
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(statuses);
+        deflater.finish();
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        while (!deflater.finished()) {
+            compressed.write(buffer, 0, deflater.deflate(buffer));
+        }
+        deflater.end();
+
+        return sign(new JOSEObjectType("statuslist+jwt"), new JWTClaimsSet.Builder()
+                .subject(getStatusListUrl())
+                .issueTime(new Date())
+                .claim("status_list", Map.of(
+                        "bits", 2,
+                        "lst", Base64.getUrlEncoder().withoutPadding().encodeToString(compressed.toByteArray())))
+                .build());
+    }
+
+    private String sign(JOSEObjectType type, JWTClaimsSet claims) {
+        try {
+            SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.ES256).type(type).build(), claims);
+            jwt.sign(issuerSigner);
+            return jwt.serialize();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign " + type, e);
+        }
+    }
+
+    // ---- HTTP helpers ----
+
+    private String fetch(String url) {
+        return send(HttpRequest.newBuilder(URI.create(url)).GET().build());
+    }
+
+    private String post(String url, Map<String, String> form) {
+        String body = form.entrySet().stream()
+                .map(e -> URLEncoder.encode(e.getKey(), StandardCharsets.UTF_8) + "="
+                        + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+        return send(HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build());
+    }
+
+    private String send(HttpRequest request) {
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 400) {
+                throw new WalletClientException("HTTP " + response.statusCode() + " " + request.method()
+                        + " " + request.uri() + ": " + response.body(), response.statusCode());
+            }
+            return response.body();
+        } catch (IOException e) {
+            throw new WalletClientException("HTTP request failed: " + request.method() + " " + request.uri(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WalletClientException("Interrupted: " + request.method() + " " + request.uri(), e);
+        }
+    }
+
+    private static Map<String, String> queryParameters(String uri) {
+        Map<String, String> params = new LinkedHashMap<>();
+        int query = uri.indexOf('?');
+        if (query < 0) {
+            return params;
+        }
+        for (String pair : uri.substring(query + 1).split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter " + name);
+        }
+        return value;
+    }
+
+    private static Map<String, Object> readMap(String json) {
+        try {
+            return MAPPER.readValue(json, new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON body", e);
+        }
+    }
+
+    private static Response json(int status, Object body) {
+        try {
+            return new Response(status, "application/json", MAPPER.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+
+    private static Response text(int status, String body) {
+        return new Response(status, "text/plain", body);
+    }
+
+    private static Response error(int status, String message) {
+        return json(status, Map.of("error", String.valueOf(message)));
+    }
+
+    private record Response(int status, String contentType, String body) {
+    }
+
+    private record StoredCredential(String id, CredentialFormat format, String type, Map<String, Object> claims,
+                                    String raw, boolean holderBound, int statusIndex, int status) {
+
+        StoredCredential(CredentialFormat format, String type, Map<String, Object> claims, String raw,
+                         boolean holderBound) {
+            this(UUID.randomUUID().toString(), format, type, claims, raw, holderBound, -1, 0);
+        }
+
+        StoredCredential withStatusIndex(int statusIndex) {
+            return new StoredCredential(id, format, type, claims, raw, holderBound, statusIndex, status);
+        }
+
+        StoredCredential withStatus(int status) {
+            return new StoredCredential(id, format, type, claims, raw, holderBound, statusIndex, status);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent map whose entries disappear {@code ttl} after they were put, for
+ * per-flow state of the stub servers that clients may abandon. Expired
+ * entries are invisible at once and swept out every half {@code ttl}, on the
+ * next {@link #put}.
+ */
+final class ExpiringMap<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+    private volatile long ttlNanos;
+
+    ExpiringMap(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.nextSweep = new AtomicLong(System.nanoTime() + ttlNanos / 2);
+    }
+
+    void ttl(Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        nextSweep.set(System.nanoTime() + ttlNanos / 2);
+    }
+
+    void put(K key, V value) {
+        long now = System.nanoTime();
+        long sweepAt = nextSweep.get();
+        if (now - sweepAt >= 0 && nextSweep.compareAndSet(sweepAt, now + ttlNanos / 2)) {
+            entries.values().removeIf(entry -> entry.expired(now));
+        }
+        entries.put(key, new Entry<>(value, now + ttlNanos));
+    }
+
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null || entry.expired(System.nanoTime()) ? null : entry.value();
+    }
+
+    /**
+     * Removes and returns the value, or {@code null} if there is none or it
+     * has expired.
+     */
+    V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry == null || entry.expired(System.nanoTime()) ? null : entry.value();
+    }
+
+    /**
+     * Removes the entry if it is mapped to {@code value} and has not expired.
+     */
+    boolean remove(K key, V value) {
+        Entry<V> entry = entries.get(key);
+        return entry != null && !entry.expired(System.nanoTime()) && entry.value().equals(value)
+                && entries.remove(key, entry);
+    }
+
+    /** Entries held, including expired ones not swept yet. */
+    int size() {
+        return entries.size();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+
+        boolean expired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
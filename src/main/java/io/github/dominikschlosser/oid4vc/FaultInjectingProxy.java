@@ -0,0 +1,348 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local HTTP proxy in front of a wallet that delays, resets, truncates or
+ * fails requests according to {@link FaultProfile}s registered per endpoint,
+ * to test how verifiers and load drivers cope with slow or flaky wallets.
+ *
+ * <pre>{@code
+ * try (FaultInjectingProxy proxy = new FaultInjectingProxy(wallet.getBaseUrl()).seed(42)
+ *         .inject("POST /api/presentations", new FaultProfile()
+ *                 .latency(LatencyDistribution.logNormal(Duration.ofMillis(200), 0.8))
+ *                 .serverErrorRate(0.05))
+ *         .inject("/api/credentials", Duration.ofSeconds(10), Duration.ofSeconds(20),
+ *                 new FaultProfile().resetRate(1))
+ *         .start()) {
+ *     WalletClient client = proxy.client();
+ * }
+ * }</pre>
+ *
+ * <p>Every request gets a sequence number in arrival order, and all of its
+ * random decisions come from a generator derived from the seed and that
+ * number. A run with the same seed and the same request order therefore
+ * injects the same faults and delays; {@link #getSeed()} reports the seed of a
+ * run that was not seeded explicitly.
+ *
+ * <p>Each connection carries one request and is closed after the response.
+ */
+public class FaultInjectingProxy implements AutoCloseable {
+
+    public enum Fault {
+        NONE, RESET, TRUNCATE, SERVER_ERROR
+    }
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final Set<String> UNFORWARDED_HEADERS = Set.of(
+            "connection", "content-length", "expect", "host", "upgrade", "http2-settings", "keep-alive",
+            "transfer-encoding");
+
+    private final URI target;
+    private final HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final List<Rule> rules = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Fault, LongAdder> counts = new EnumMap<>(Fault.class);
+
+    private long seed = ThreadLocalRandom.current().nextLong();
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+    private long startNanos;
+
+    public FaultInjectingProxy(String targetBaseUrl) {
+        this.target = URI.create(targetBaseUrl.endsWith("/")
+                ? targetBaseUrl.substring(0, targetBaseUrl.length() - 1)
+                : targetBaseUrl);
+        for (Fault fault : Fault.values()) {
+            counts.put(fault, new LongAdder());
+        }
+    }
+
+    public FaultInjectingProxy seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Applies {@code profile} to requests whose path starts with the endpoint's
+     * path. The endpoint may be prefixed with a method, e.g.
+     * {@code "POST /api/presentations"}. The first matching rule wins.
+     */
+    public FaultInjectingProxy inject(String endpoint, FaultProfile profile) {
+        return inject(endpoint, Duration.ZERO, null, profile);
+    }
+
+    /**
+     * Like {@link #inject(String, FaultProfile)}, but only between {@code from}
+     * and {@code until} after {@link #start()}. A {@code null} {@code until}
+     * keeps the rule active until the proxy stops.
+     */
+    public FaultInjectingProxy inject(String endpoint, Duration from, Duration until, FaultProfile profile) {
+        int space = endpoint.indexOf(' ');
+        rules.add(new Rule(
+                space < 0 ? null : endpoint.substring(0, space),
+                space < 0 ? endpoint : endpoint.substring(space + 1),
+                from.toNanos(),
+                until == null ? Long.MAX_VALUE : until.toNanos(),
+                profile));
+        return this;
+    }
+
+    public void clearFaults() {
+        rules.clear();
+    }
+
+    public synchronized FaultInjectingProxy start() {
+        if (serverSocket != null) {
+            throw new IllegalStateException("Proxy already started");
+        }
+        try {
+            serverSocket = new ServerSocket(0, 512, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start fault-injecting proxy", e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        startNanos = System.nanoTime();
+        ServerSocket socket = serverSocket;
+        executor.execute(() -> {
+            while (!socket.isClosed()) {
+                try {
+                    Socket connection = socket.accept();
+                    executor.execute(() -> serve(connection));
+                } catch (IOException e) {
+                    // socket closed by stop()
+                }
+            }
+        });
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (serverSocket != null) {
+            try {
+                serverSocket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+            executor.shutdownNow();
+            serverSocket = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    public synchronized String getBaseUrl() {
+        if (serverSocket == null) {
+            throw new IllegalStateException("Proxy not started");
+        }
+        return "http://" + serverSocket.getInetAddress().getHostAddress() + ":" + serverSocket.getLocalPort();
+    }
+
+    /**
+     * Returns a new client that talks to the wallet through this proxy.
+     */
+    public WalletClient client() {
+        return new WalletClient(getBaseUrl());
+    }
+
+    public long requests() {
+        return sequence.get();
+    }
+
+    public long count(Fault fault) {
+        return counts.get(fault).sum();
+    }
+
+    Decision decide(long sequenceNumber, String method, String path, long elapsedNanos) {
+        SplittableRandom random = new SplittableRandom(mix64(seed + sequenceNumber * GOLDEN_GAMMA));
+        for (Rule rule : rules) {
+            if (rule.matches(method, path, elapsedNanos)) {
+                FaultProfile profile = rule.profile();
+                long delay = profile.getLatency().sampleNanos(random);
+                return new Decision(profile.pick(random.nextDouble()), delay, profile.getServerErrorStatus());
+            }
+        }
+        return new Decision(Fault.NONE, 0, 0);
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            long sequenceNumber = sequence.getAndIncrement();
+            InputStream in = new BufferedInputStream(socket.getInputStream());
+            String requestLine = readLine(in);
+            if (requestLine == null || requestLine.isEmpty()) {
+                return;
+            }
+            String[] parts = requestLine.split(" ");
+            if (parts.length < 2 || !parts[1].startsWith("/")) {
+                badRequest(socket, "Malformed request line: " + requestLine);
+                return;
+            }
+            String method = parts[0];
+            String pathAndQuery = parts[1];
+            Map<String, String> headers = new LinkedHashMap<>();
+            String line;
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon < 0) {
+                    badRequest(socket, "Malformed header: " + line);
+                    return;
+                }
+                headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(colon + 1).trim());
+            }
+            int contentLength;
+            try {
+                contentLength = Integer.parseInt(headers.getOrDefault("content-length", "0"));
+            } catch (NumberFormatException e) {
+                contentLength = -1;
+            }
+            if (contentLength < 0) {
+                badRequest(socket, "Malformed Content-Length: " + headers.get("content-length"));
+                return;
+            }
+            byte[] body = in.readNBytes(contentLength);
+
+            String path = pathAndQuery.contains("?") ? pathAndQuery.substring(0, pathAndQuery.indexOf('?')) : pathAndQuery;
+            Decision decision = decide(sequenceNumber, method, path, System.nanoTime() - startNanos);
+            counts.get(decision.fault()).increment();
+            if (decision.delayNanos() > 0) {
+                Thread.sleep(Duration.ofNanos(decision.delayNanos()));
+            }
+
+            OutputStream out = socket.getOutputStream();
+            switch (decision.fault()) {
+                case RESET -> socket.setSoLinger(true, 0);
+                case SERVER_ERROR -> writeResponse(out, decision.status(), "application/json",
+                        "{\"error\":\"injected_fault\"}".getBytes(StandardCharsets.UTF_8), false);
+                case NONE, TRUNCATE -> {
+                    HttpResponse<byte[]> response;
+                    try {
+                        response = forward(method, pathAndQuery, headers, body);
+                    } catch (IOException e) {
+                        writeResponse(out, 502, "text/plain",
+                                ("Wallet unreachable: " + e).getBytes(StandardCharsets.UTF_8), false);
+                        return;
+                    }
+                    writeResponse(out, response.statusCode(),
+                            response.headers().firstValue("content-type").orElse("application/octet-stream"),
+                            response.body(), decision.fault() == Fault.TRUNCATE);
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void badRequest(Socket socket, String message) throws IOException {
+        writeResponse(socket.getOutputStream(), 400, "text/plain", message.getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    private HttpResponse<byte[]> forward(String method, String pathAndQuery, Map<String, String> headers,
+                                         byte[] body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(target + pathAndQuery))
+                .method(method, body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        headers.forEach((name, value) -> {
+            if (!UNFORWARDED_HEADERS.contains(name)) {
+                request.header(name, value);
+            }
+        });
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    // A truncated response announces the full length (at least 1) but sends only half of the body.
+    private static void writeResponse(OutputStream out, int status, String contentType, byte[] body,
+                                      boolean truncate) throws IOException {
+        String head = "HTTP/1.1 " + status + " " + (status < 400 ? "OK" : "Error") + "\r\n"
+                + "Content-Type: " + contentType + "\r\n"
+                + "Content-Length: " + (truncate ? Math.max(body.length, 1) : body.length) + "\r\n"
+                + "Connection: close\r\n\r\n";
+        out.write(head.getBytes(StandardCharsets.US_ASCII));
+        out.write(body, 0, truncate ? body.length / 2 : body.length);
+        out.flush();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b == '\n') {
+                break;
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return b == -1 && line.size() == 0 ? null : line.toString(StandardCharsets.US_ASCII);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    record Decision(Fault fault, long delayNanos, int status) {
+    }
+
+    private record Rule(String method, String pathPrefix, long fromNanos, long untilNanos, FaultProfile profile) {
+
+        boolean matches(String requestMethod, String path, long elapsedNanos) {
+            return (method == null || method.equalsIgnoreCase(requestMethod))
+                    && path.startsWith(pathPrefix)
+                    && elapsedNanos >= fromNanos
+                    && elapsedNanos < untilNanos;
+        }
+    }
+}
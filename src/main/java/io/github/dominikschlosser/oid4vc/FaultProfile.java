@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+/**
+ * What {@link FaultInjectingProxy} does to requests matching an endpoint:
+ * a delay drawn from a {@link LatencyDistribution}, followed by at most one of
+ * a connection reset, a truncated body or a server error. The three rates are
+ * probabilities per request and must not add up to more than 1.
+ */
+public class FaultProfile {
+
+    private LatencyDistribution latency = LatencyDistribution.NONE;
+    private double resetRate;
+    private double truncateRate;
+    private double serverErrorRate;
+    private int serverErrorStatus = 503;
+
+    public FaultProfile latency(LatencyDistribution latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Share of requests whose connection is reset (TCP RST) before any
+     * response byte is sent.
+     */
+    public FaultProfile resetRate(double resetRate) {
+        this.resetRate = checkRate(resetRate);
+        return checkTotal();
+    }
+
+    /**
+     * Share of responses cut off after half of the body, with the full
+     * {@code Content-Length} announced.
+     */
+    public FaultProfile truncateRate(double truncateRate) {
+        this.truncateRate = checkRate(truncateRate);
+        return checkTotal();
+    }
+
+    /**
+     * Share of requests answered with {@link #serverErrorStatus(int)} without
+     * reaching the wallet.
+     */
+    public FaultProfile serverErrorRate(double serverErrorRate) {
+        this.serverErrorRate = checkRate(serverErrorRate);
+        return checkTotal();
+    }
+
+    public FaultProfile serverErrorStatus(int serverErrorStatus) {
+        if (serverErrorStatus < 500 || serverErrorStatus > 599) {
+            throw new IllegalArgumentException("Not a 5xx status: " + serverErrorStatus);
+        }
+        this.serverErrorStatus = serverErrorStatus;
+        return this;
+    }
+
+    LatencyDistribution getLatency() {
+        return latency;
+    }
+
+    int getServerErrorStatus() {
+        return serverErrorStatus;
+    }
+
+    FaultInjectingProxy.Fault pick(double uniform) {
+        if (uniform < resetRate) {
+            return FaultInjectingProxy.Fault.RESET;
+        }
+        if (uniform < resetRate + truncateRate) {
+            return FaultInjectingProxy.Fault.TRUNCATE;
+        }
+        if (uniform < resetRate + truncateRate + serverErrorRate) {
+            return FaultInjectingProxy.Fault.SERVER_ERROR;
+        }
+        return FaultInjectingProxy.Fault.NONE;
+    }
+
+    private FaultProfile checkTotal() {
+        double total = resetRate + truncateRate + serverErrorRate;
+        if (total > 1) {
+            throw new IllegalArgumentException("Fault rates add up to more than 1: " + total);
+        }
+        return this;
+    }
+
+    private static double checkRate(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Rate must be between 0 and 1: " + rate);
+        }
+        return rate;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Opt-in persistent cache for signing keys and built SD-JWTs, so that
+ * repeated test runs skip key generation and signing.
+ *
+ * <p>Credentials are keyed by a hash over everything that goes into them:
+ * signing key and holder key thumbprints, vct, issuer, claims and ttl. A cached
+ * credential is reused while at least half of its ttl is left and is re-minted
+ * otherwise. Hits only happen with a stable signing key, so builders should
+ * take theirs from {@link #signingKey(String)}.
+ *
+ * <p>Entries are written to a temporary file and moved into place, so several
+ * JVMs can share a directory.
+ */
+public class FixtureCache {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectMapper CANONICAL_MAPPER = JsonMapper.builder()
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .build();
+    private static final Pattern KEY_NAME = Pattern.compile("[A-Za-z0-9._-]+");
+
+    private final Path keyDirectory;
+    private final Path credentialDirectory;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FixtureCache(Path directory) {
+        this.keyDirectory = directory.resolve("keys");
+        this.credentialDirectory = directory.resolve("credentials");
+        try {
+            Files.createDirectories(keyDirectory);
+            Files.createDirectories(credentialDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create fixture cache in " + directory, e);
+        }
+    }
+
+    /**
+     * Returns the P-256 key stored under {@code name}, generating and persisting
+     * it on first use.
+     */
+    public ECKey signingKey(String name) {
+        if (!KEY_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Key name must match " + KEY_NAME + ": " + name);
+        }
+        Path file = keyDirectory.resolve(name + ".jwk");
+        try {
+            return ECKey.parse(Files.readString(file));
+        } catch (NoSuchFileException e) {
+            // generated below
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Failed to read cached signing key " + file, e);
+        }
+
+        try {
+            ECKey key = new ECKeyGenerator(Curve.P_256).keyID(name).generate();
+            Path temp = Files.createTempFile(keyDirectory, name, ".tmp");
+            Files.writeString(temp, key.toJSONString());
+            try {
+                // no REPLACE_EXISTING: if another JVM won the race, use its key
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+                return key;
+            } catch (FileAlreadyExistsException e) {
+                Files.deleteIfExists(temp);
+                return ECKey.parse(Files.readString(file));
+            }
+        } catch (JOSEException | ParseException e) {
+            throw new IllegalStateException("Failed to create cached signing key " + file, e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store signing key " + file, e);
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    String credential(Map<String, Object> inputs, Duration ttl, Supplier<String> mint) {
+        Path file = credentialDirectory.resolve(hash(inputs) + ".json");
+        Instant now = Instant.now();
+
+        CachedCredential cached = read(file);
+        if (cached != null && now.isBefore(Instant.ofEpochSecond(cached.issuedAt()).plus(ttl.dividedBy(2)))) {
+            hits.increment();
+            return cached.credential();
+        }
+
+        misses.increment();
+        String credential = mint.get();
+        write(file, new CachedCredential(now.getEpochSecond(), credential));
+        return credential;
+    }
+
+    private CachedCredential read(Path file) {
+        try {
+            return MAPPER.readValue(file.toFile(), CachedCredential.class);
+        } catch (IOException e) {
+            // missing or half-written by a crashed run: treat as a miss
+            return null;
+        }
+    }
+
+    private void write(Path file, CachedCredential entry) {
+        try {
+            Path temp = Files.createTempFile(credentialDirectory, "entry", ".tmp");
+            MAPPER.writeValue(temp.toFile(), entry);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to store cached credential " + file, e);
+        }
+    }
+
+    private static String hash(Map<String, Object> inputs) {
+        try {
+            byte[] canonical = CANONICAL_MAPPER.writeValueAsString(inputs).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Credential inputs are not JSON-serializable", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    record CachedCredential(long issuedAt, String credential) {
+    }
+}
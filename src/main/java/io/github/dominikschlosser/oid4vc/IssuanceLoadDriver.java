@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Redeems credential offers through one or more wallets to load-test an issuer.
+ * Offer URIs are pulled from the supplier outside of the timed section; the
+ * supplier is called concurrently and must be thread-safe.
+ *
+ * <p>With {@link #verifyIssued()} each redemption additionally lists the
+ * wallet's credentials and claims one that was not there before. That listing
+ * is part of the measured latency.
+ */
+public class IssuanceLoadDriver {
+
+    private final Supplier<String> offerUris;
+    private final List<WalletClient> clients;
+    private int concurrency;
+    private double ratePerSecond;
+    private Duration duration;
+    private long offers;
+    private boolean verifyIssued;
+
+    public IssuanceLoadDriver(Supplier<String> offerUris, WalletClient... clients) {
+        this(offerUris, List.of(clients));
+    }
+
+    public IssuanceLoadDriver(Supplier<String> offerUris, List<WalletClient> clients) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("At least one wallet client is required");
+        }
+        this.offerUris = offerUris;
+        this.clients = List.copyOf(clients);
+    }
+
+    /**
+     * Runs closed-loop: each of {@code concurrency} workers redeems its next offer
+     * as soon as the previous one completes.
+     */
+    public IssuanceLoadDriver concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Runs open-loop: offers are redeemed at a fixed arrival rate, independent of
+     * how fast the issuer answers. The configured concurrency then caps the
+     * number of redemptions in flight; without one, up to 256 run at once.
+     */
+    public IssuanceLoadDriver ratePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+        return this;
+    }
+
+    public IssuanceLoadDriver duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public IssuanceLoadDriver offers(long offers) {
+        this.offers = offers;
+        return this;
+    }
+
+    public IssuanceLoadDriver verifyIssued() {
+        this.verifyIssued = true;
+        return this;
+    }
+
+    public LoadReport run() {
+        LoadRunner runner = new LoadRunner(
+                LoadRunner.workers(concurrency, ratePerSecond), ratePerSecond, duration, offers);
+        Map<WalletClient, Set<String>> knownIds = verifyIssued ? snapshotCredentialIds() : Map.of();
+        return runner.run(
+                sequence -> new Attempt(clients.get((int) (sequence % clients.size())), offerUris.get()),
+                attempt -> {
+                    attempt.client().acceptCredentialOffer(attempt.uri());
+                    if (verifyIssued) {
+                        claimNewCredential(attempt.client(), knownIds.get(attempt.client()));
+                    }
+                });
+    }
+
+    private Map<WalletClient, Set<String>> snapshotCredentialIds() {
+        Map<WalletClient, Set<String>> knownIds = new IdentityHashMap<>();
+        for (WalletClient client : clients) {
+            knownIds.computeIfAbsent(client, c -> {
+                Set<String> ids = ConcurrentHashMap.newKeySet();
+                c.getCredentials().forEach(credential -> ids.add(credential.id()));
+                return ids;
+            });
+        }
+        return knownIds;
+    }
+
+    // Concurrent redemptions against the same wallet may all see each other's
+    // credentials, so each one claims exactly one unseen ID.
+    private static void claimNewCredential(WalletClient client, Set<String> knownIds) {
+        for (Credential credential : client.getCredentials()) {
+            if (knownIds.add(credential.id())) {
+                return;
+            }
+        }
+        throw new MissingCredentialException("Offer was accepted but no new credential appeared in the wallet");
+    }
+
+    private record Attempt(WalletClient client, String uri) {
+    }
+
+    static class MissingCredentialException extends RuntimeException {
+
+        MissingCredentialException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACSigner;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jca.JCAContext;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.OctetSequenceKey;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.OctetSequenceKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.util.Base64URL;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Maps Nimbus JWKs to JWS algorithms, signers and verifiers.
+ *
+ * <p>Nimbus only signs Ed25519 through the optional Tink dependency, so OKP keys
+ * are handled with the JDK's own EdDSA provider instead.
+ */
+final class JwsSupport {
+
+    // DER prefixes of PKCS#8 / X.509 encodings of raw 32-byte Ed25519 keys (RFC 8410)
+    private static final byte[] ED25519_PKCS8_PREFIX = HexFormat.of().parseHex("302e020100300506032b657004220420");
+    private static final byte[] ED25519_X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+    private static final Set<JWSAlgorithm> ED25519_ALGORITHMS = Set.of(JWSAlgorithm.EdDSA, JWSAlgorithm.Ed25519);
+
+    private JwsSupport() {
+    }
+
+    /**
+     * Returns the key's own {@code alg} if it has one, otherwise the algorithm
+     * implied by its type and curve.
+     */
+    static JWSAlgorithm algorithmFor(JWK key) {
+        if (key.getAlgorithm() != null) {
+            return JWSAlgorithm.parse(key.getAlgorithm().getName());
+        }
+        if (key instanceof ECKey ecKey) {
+            Curve curve = ecKey.getCurve();
+            if (Curve.P_256.equals(curve)) {
+                return JWSAlgorithm.ES256;
+            } else if (Curve.P_384.equals(curve)) {
+                return JWSAlgorithm.ES384;
+            } else if (Curve.P_521.equals(curve)) {
+                return JWSAlgorithm.ES512;
+            } else if (Curve.SECP256K1.equals(curve)) {
+                return JWSAlgorithm.ES256K;
+            }
+        } else if (key instanceof OctetKeyPair okp && Curve.Ed25519.equals(okp.getCurve())) {
+            return JWSAlgorithm.EdDSA;
+        } else if (key instanceof RSAKey) {
+            return JWSAlgorithm.RS256;
+        } else if (key instanceof OctetSequenceKey) {
+            return JWSAlgorithm.HS256;
+        }
+        throw new IllegalArgumentException("No JWS algorithm known for " + key.getKeyType() + " key");
+    }
+
+    static JWSSigner signerFor(JWK key) {
+        try {
+            if (key instanceof ECKey ecKey) {
+                return new ECDSASigner(ecKey);
+            } else if (key instanceof OctetKeyPair okp) {
+                return new Ed25519Signer(okp);
+            } else if (key instanceof RSAKey rsaKey) {
+                return new RSASSASigner(rsaKey);
+            } else if (key instanceof OctetSequenceKey secret) {
+                return new MACSigner(secret);
+            }
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to create signer for " + key.getKeyType() + " key", e);
+        }
+        throw new IllegalArgumentException("Unsupported signing key type: " + key.getKeyType());
+    }
+
+    static JWSVerifier verifierFor(JWK key) {
+        try {
+            if (key instanceof ECKey ecKey) {
+                return new ECDSAVerifier(ecKey.toPublicJWK());
+            } else if (key instanceof OctetKeyPair okp) {
+                return new Ed25519Verifier(okp);
+            } else if (key instanceof RSAKey rsaKey) {
+                return new RSASSAVerifier(rsaKey.toPublicJWK());
+            } else if (key instanceof OctetSequenceKey secret) {
+                return new MACVerifier(secret);
+            }
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to create verifier for " + key.getKeyType() + " key", e);
+        }
+        throw new IllegalArgumentException("Unsupported verification key type: " + key.getKeyType());
+    }
+
+    /**
+     * Generates a fresh signing key for {@code algorithm}.
+     */
+    static JWK generateKey(JWSAlgorithm algorithm) {
+        try {
+            if (JWSAlgorithm.ES256.equals(algorithm)) {
+                return new ECKeyGenerator(Curve.P_256).generate();
+            } else if (JWSAlgorithm.ES384.equals(algorithm)) {
+                return new ECKeyGenerator(Curve.P_384).generate();
+            } else if (JWSAlgorithm.ES512.equals(algorithm)) {
+                return new ECKeyGenerator(Curve.P_521).generate();
+            } else if (ED25519_ALGORITHMS.contains(algorithm)) {
+                return generateEd25519Key();
+            } else if (JWSAlgorithm.Family.RSA.contains(algorithm)) {
+                return new RSAKeyGenerator(2048).algorithm(algorithm).generate();
+            } else if (JWSAlgorithm.Family.HMAC_SHA.contains(algorithm)) {
+                int bits = Integer.parseInt(algorithm.getName().substring(2));
+                return new OctetSequenceKeyGenerator(bits).algorithm(algorithm).generate();
+            }
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to generate " + algorithm + " key", e);
+        }
+        throw new IllegalArgumentException("Unsupported JWS algorithm: " + algorithm);
+    }
+
+    private static OctetKeyPair generateEd25519Key() {
+        try {
+            KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+            byte[] x = rawKey(keyPair.getPublic().getEncoded());
+            byte[] d = rawKey(keyPair.getPrivate().getEncoded());
+            return new OctetKeyPair.Builder(Curve.Ed25519, Base64URL.encode(x))
+                    .d(Base64URL.encode(d))
+                    .build();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to generate Ed25519 key", e);
+        }
+    }
+
+    // The raw key is the trailing 32 bytes of both encodings
+    private static byte[] rawKey(byte[] encoded) {
+        return Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length);
+    }
+
+    private static byte[] concat(byte[] prefix, byte[] key) {
+        byte[] encoded = Arrays.copyOf(prefix, prefix.length + key.length);
+        System.arraycopy(key, 0, encoded, prefix.length, key.length);
+        return encoded;
+    }
+
+    private static void requireEd25519(OctetKeyPair key) throws JOSEException {
+        if (!Curve.Ed25519.equals(key.getCurve())) {
+            throw new JOSEException("Unsupported OKP curve: " + key.getCurve());
+        }
+    }
+
+    private static JOSEException unsupported(JWSHeader header) {
+        return new JOSEException("Unsupported JWS algorithm for Ed25519 key: " + header.getAlgorithm());
+    }
+
+    /**
+     * Ed25519 signer on the JDK provider. {@link Signature} is not thread-safe,
+     * so each thread keeps its own initialized instance.
+     */
+    static final class Ed25519Signer implements JWSSigner {
+
+        private final JCAContext jcaContext = new JCAContext();
+        private final ThreadLocal<Signature> signature;
+
+        Ed25519Signer(OctetKeyPair key) throws JOSEException {
+            requireEd25519(key);
+            if (!key.isPrivate()) {
+                throw new JOSEException("Ed25519 signer needs a private key");
+            }
+            PrivateKey privateKey;
+            try {
+                privateKey = KeyFactory.getInstance("Ed25519").generatePrivate(
+                        new PKCS8EncodedKeySpec(concat(ED25519_PKCS8_PREFIX, key.getDecodedD())));
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("Invalid Ed25519 private key", e);
+            }
+            this.signature = ThreadLocal.withInitial(() -> {
+                try {
+                    Signature instance = Signature.getInstance("Ed25519");
+                    instance.initSign(privateKey);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("Ed25519 not available", e);
+                }
+            });
+        }
+
+        @Override
+        public Base64URL sign(JWSHeader header, byte[] signingInput) throws JOSEException {
+            if (!ED25519_ALGORITHMS.contains(header.getAlgorithm())) {
+                throw unsupported(header);
+            }
+            try {
+                Signature instance = signature.get();
+                instance.update(signingInput);
+                return Base64URL.encode(instance.sign());
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("Ed25519 signing failed", e);
+            }
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return ED25519_ALGORITHMS;
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+
+    static final class Ed25519Verifier implements JWSVerifier {
+
+        private final JCAContext jcaContext = new JCAContext();
+        private final PublicKey publicKey;
+
+        Ed25519Verifier(OctetKeyPair key) throws JOSEException {
+            requireEd25519(key);
+            try {
+                this.publicKey = KeyFactory.getInstance("Ed25519").generatePublic(
+                        new X509EncodedKeySpec(concat(ED25519_X509_PREFIX, key.getDecodedX())));
+            } catch (GeneralSecurityException e) {
+                throw new JOSEException("Invalid Ed25519 public key", e);
+            }
+        }
+
+        @Override
+        public boolean verify(JWSHeader header, byte[] signingInput, Base64URL signature) throws JOSEException {
+            if (!ED25519_ALGORITHMS.contains(header.getAlgorithm())) {
+                throw unsupported(header);
+            }
+            try {
+                Signature instance = Signature.getInstance("Ed25519");
+                instance.initVerify(publicKey);
+                instance.update(signingInput);
+                return instance.verify(signature.decode());
+            } catch (GeneralSecurityException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public Set<JWSAlgorithm> supportedJWSAlgorithms() {
+            return ED25519_ALGORITHMS;
+        }
+
+        @Override
+        public JCAContext getJCAContext() {
+            return jcaContext;
+        }
+    }
+}
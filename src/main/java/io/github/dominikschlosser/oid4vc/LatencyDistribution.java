@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.time.Duration;
+import java.util.SplittableRandom;
+
+/**
+ * Samples injected response delays for {@link FaultInjectingProxy}. Samples
+ * must depend only on the given random, so a seeded proxy replays the same
+ * delays.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+    LatencyDistribution NONE = random -> 0;
+
+    long sampleNanos(SplittableRandom random);
+
+    static LatencyDistribution fixed(Duration delay) {
+        long nanos = delay.toNanos();
+        return random -> nanos;
+    }
+
+    static LatencyDistribution uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        if (maxNanos < minNanos) {
+            throw new IllegalArgumentException("max must not be below min: " + min + " > " + max);
+        }
+        return random -> minNanos + (maxNanos == minNanos ? 0 : random.nextLong(maxNanos - minNanos + 1));
+    }
+
+    static LatencyDistribution exponential(Duration mean) {
+        double meanNanos = mean.toNanos();
+        return random -> (long) (-meanNanos * Math.log(1 - random.nextDouble()));
+    }
+
+    /**
+     * Log-normal delays around {@code median}, the usual shape of service
+     * latencies with a long tail. {@code sigma} is the standard deviation of the
+     * underlying normal distribution; 0.5 to 1 gives a realistic tail.
+     */
+    static LatencyDistribution logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return random -> {
+            // Box-Muller with two uniform draws, so every sample consumes the same amount of randomness
+            double u1 = 1 - random.nextDouble();
+            double u2 = random.nextDouble();
+            double gaussian = Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+            return (long) Math.exp(mu + sigma * gaussian);
+        };
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe latency histogram with log-linear buckets, in the style of
+ * HdrHistogram. Values are recorded in nanoseconds and reported with a relative
+ * error below 1%, independent of magnitude, in a fixed amount of memory.
+ */
+public final class LatencyHistogram {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final double[] REPORTED_PERCENTILES = {50, 75, 90, 95, 99, 99.9, 99.99, 100};
+
+    // 2^(8-1) sub-buckets per power of two: reported values are at most 1/128 above the recorded ones
+    private static final int SUB_BUCKET_BITS = 8;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (63 - SUB_BUCKET_BITS) * SUB_BUCKET_HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(0);
+
+    public void record(long nanos) {
+        recordCount(nanos, 1);
+    }
+
+    public void record(Duration duration) {
+        record(duration.toNanos());
+    }
+
+    /**
+     * Records a value and back-fills the samples that a stalled closed-loop caller
+     * would have produced had it kept issuing a request every
+     * {@code expectedIntervalNanos}. This corrects for coordinated omission when
+     * intended start times are not known.
+     */
+    public void recordCorrected(long nanos, long expectedIntervalNanos) {
+        record(nanos);
+        if (expectedIntervalNanos <= 0) {
+            return;
+        }
+        for (long missing = nanos - expectedIntervalNanos; missing >= expectedIntervalNanos; missing -= expectedIntervalNanos) {
+            record(missing);
+        }
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = other.counts.get(i);
+            if (count > 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+        totalCount.add(other.totalCount.sum());
+        totalNanos.add(other.totalNanos.sum());
+        min.accumulateAndGet(other.min.get(), Math::min);
+        max.accumulateAndGet(other.max.get(), Math::max);
+    }
+
+    public long count() {
+        return totalCount.sum();
+    }
+
+    public Duration min() {
+        return count() == 0 ? Duration.ZERO : Duration.ofNanos(min.get());
+    }
+
+    public Duration max() {
+        return Duration.ofNanos(max.get());
+    }
+
+    public Duration mean() {
+        long count = count();
+        return count == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / count);
+    }
+
+    /**
+     * Returns the smallest recorded value such that {@code percentile} percent of
+     * all recorded values are less than or equal to it.
+     */
+    public Duration valueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        long count = count();
+        if (count == 0) {
+            return Duration.ZERO;
+        }
+        long threshold = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= threshold) {
+                return Duration.ofNanos(Math.min(highestEquivalentValue(i), max.get()));
+            }
+        }
+        return max();
+    }
+
+    public String toJson() {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("unit", "ns");
+        json.put("count", count());
+        json.put("min", min().toNanos());
+        json.put("mean", mean().toNanos());
+        json.put("max", max().toNanos());
+        Map<String, Long> percentiles = new LinkedHashMap<>();
+        for (double percentile : REPORTED_PERCENTILES) {
+            percentiles.put(formatPercentile(percentile), valueAtPercentile(percentile).toNanos());
+        }
+        json.put("percentiles", percentiles);
+        List<long[]> buckets = new ArrayList<>();
+        forEachBucket((value, count, cumulative) -> buckets.add(new long[]{value, count}));
+        json.put("buckets", buckets);
+        try {
+            return MAPPER.writeValueAsString(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize histogram", e);
+        }
+    }
+
+    /**
+     * Returns the percentile distribution as CSV, one line per non-empty bucket
+     * with its highest equivalent value, the cumulative percentile and the
+     * cumulative count.
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder("value_ns,percentile,total_count\n");
+        long total = count();
+        forEachBucket((value, count, cumulative) -> csv.append(value).append(',')
+                .append(String.format(Locale.ROOT, "%.6f", 100.0 * cumulative / total)).append(',')
+                .append(cumulative).append('\n'));
+        return csv.toString();
+    }
+
+    public void writeJson(Path file) {
+        write(file, toJson());
+    }
+
+    public void writeCsv(Path file) {
+        write(file, toCsv());
+    }
+
+    private void forEachBucket(BucketVisitor visitor) {
+        long cumulative = 0;
+        long maxValue = max.get();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                cumulative += count;
+                visitor.visit(Math.min(highestEquivalentValue(i), maxValue), count, cumulative);
+            }
+        }
+    }
+
+    private static void write(Path file, String content) {
+        try {
+            Files.writeString(file, content, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write histogram to " + file, e);
+        }
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private void recordCount(long nanos, long count) {
+        long value = Math.max(0, nanos);
+        counts.addAndGet(bucketIndex(value), count);
+        totalCount.add(count);
+        totalNanos.add(value * count);
+        min.accumulateAndGet(value, Math::min);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    private static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        int subBucket = (int) (value >>> shift) - SUB_BUCKET_HALF;
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + subBucket;
+    }
+
+    private static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF + 1;
+        long subBucket = (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF + SUB_BUCKET_HALF;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    @FunctionalInterface
+    private interface BucketVisitor {
+        void visit(long value, long count, long cumulative);
+    }
+}
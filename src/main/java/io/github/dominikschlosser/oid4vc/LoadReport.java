@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Outcome of a load run. {@code latencies} is measured from each operation's
+ * intended start time when the run followed a fixed arrival rate, and from its
+ * actual start otherwise; {@code serviceTimes} always covers only the call
+ * itself. A large gap between the two means operations queued up behind a
+ * stalled wallet or system under test. Both include operations that failed,
+ * but not those whose input could not be created.
+ */
+public record LoadReport(long operations, long successes, Map<String, Long> errors, Duration elapsed,
+                         LatencyHistogram latencies, LatencyHistogram serviceTimes) {
+
+    public long failures() {
+        return operations - successes;
+    }
+
+    public double throughput() {
+        double seconds = elapsed.toNanos() / 1_000_000_000.0;
+        return seconds == 0 ? 0 : operations / seconds;
+    }
+
+    public double errorRate() {
+        return operations == 0 ? 0 : (double) failures() / operations;
+    }
+
+    public Duration latencyAtPercentile(double percentile) {
+        return latencies.valueAtPercentile(percentile);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d ops in %d ms (%.1f ops/s), %d errors %s, latency p50=%.2fms p90=%.2fms p99=%.2fms max=%.2fms",
+                operations, elapsed.toMillis(), throughput(), failures(), errors,
+                millis(latencyAtPercentile(50)), millis(latencyAtPercentile(90)),
+                millis(latencyAtPercentile(99)), millis(latencies.max()));
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Shared engine behind the load drivers. Runs {@code concurrency} workers that
+ * either loop back-to-back (closed loop) or pick up operations on a fixed
+ * arrival schedule when a rate is set, until the duration or operation budget
+ * is exhausted.
+ *
+ * <p>On a fixed schedule every operation has an intended start time, and its
+ * latency is measured from that instant rather than from when a worker got
+ * around to it. Queueing behind a stalled wallet therefore shows up in the
+ * percentiles instead of being silently omitted; the pure service time is
+ * reported separately.
+ *
+ * <p>Operations that throw are timed like successful ones, in a
+ * {@code finally} block, so fast errors and slow timeouts show up in the
+ * percentiles. Inputs that cannot be created count as errors but are not
+ * timed, since the operation never ran.
+ */
+final class LoadRunner {
+
+    /**
+     * Worker count for open-loop runs without an explicit concurrency. Workers
+     * are virtual threads, so this only bounds a stalled target's backlog.
+     */
+    static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+    @FunctionalInterface
+    interface Operation<T> {
+        void execute(T input) throws Exception;
+    }
+
+    private final int concurrency;
+    private final double ratePerSecond;
+    private final Duration duration;
+    private final long maxOperations;
+
+    LoadRunner(int concurrency, double ratePerSecond, Duration duration, long maxOperations) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        if (ratePerSecond < 0) {
+            throw new IllegalArgumentException("Rate must not be negative: " + ratePerSecond);
+        }
+        if (duration == null && maxOperations <= 0) {
+            throw new IllegalStateException("Either a duration or a number of operations must be configured");
+        }
+        this.concurrency = concurrency;
+        this.ratePerSecond = ratePerSecond;
+        this.duration = duration;
+        this.maxOperations = maxOperations > 0 ? maxOperations : Long.MAX_VALUE;
+    }
+
+    /**
+     * Resolves a driver's concurrency setting, where {@code 0} means unset:
+     * closed-loop runs default to one worker, open-loop runs to
+     * {@link #DEFAULT_MAX_IN_FLIGHT} so the arrival rate is not capped by how
+     * fast the target answers.
+     */
+    static int workers(int concurrency, double ratePerSecond) {
+        if (concurrency > 0) {
+            return concurrency;
+        }
+        return ratePerSecond > 0 ? DEFAULT_MAX_IN_FLIGHT : 1;
+    }
+
+    <T> LoadReport run(LongFunction<T> inputs, Operation<T> operation) {
+        LatencyHistogram latencies = new LatencyHistogram();
+        LatencyHistogram serviceTimes = new LatencyHistogram();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        AtomicLong issued = new AtomicLong();
+        LongAdder operations = new LongAdder();
+        LongAdder successes = new LongAdder();
+
+        long start = System.nanoTime();
+        long deadline = duration != null ? start + duration.toNanos() : Long.MAX_VALUE;
+        long intervalNanos = ratePerSecond > 0 ? (long) (1_000_000_000.0 / ratePerSecond) : 0;
+
+        Runnable worker = () -> {
+            while (true) {
+                long sequence = issued.getAndIncrement();
+                if (sequence >= maxOperations) {
+                    return;
+                }
+                long intended;
+                if (intervalNanos > 0) {
+                    // Operations scheduled before the deadline still run even if
+                    // the workers fell behind; dropping them would hide the backlog.
+                    intended = start + sequence * intervalNanos;
+                    if (intended >= deadline) {
+                        return;
+                    }
+                    parkUntil(intended);
+                } else {
+                    intended = System.nanoTime();
+                    if (intended >= deadline) {
+                        return;
+                    }
+                }
+
+                T input;
+                try {
+                    input = inputs.apply(sequence);
+                } catch (RuntimeException e) {
+                    operations.increment();
+                    errors.computeIfAbsent("supplier: " + e.getClass().getSimpleName(), k -> new LongAdder()).increment();
+                    continue;
+                }
+
+                long begin = System.nanoTime();
+                try {
+                    operation.execute(input);
+                    successes.increment();
+                } catch (Exception e) {
+                    errors.computeIfAbsent(classify(e), k -> new LongAdder()).increment();
+                } finally {
+                    long end = System.nanoTime();
+                    latencies.record(end - (intervalNanos > 0 ? intended : begin));
+                    serviceTimes.record(end - begin);
+                    operations.increment();
+                }
+            }
+        };
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                executor.execute(worker);
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((key, count) -> errorCounts.put(key, count.sum()));
+        return new LoadReport(operations.sum(), successes.sum(), errorCounts, elapsed, latencies, serviceTimes);
+    }
+
+    static String classify(Throwable e) {
+        if (e instanceof WalletClientException walletError) {
+            if (walletError.getStatusCode() > 0) {
+                return "HTTP " + walletError.getStatusCode();
+            }
+            if (walletError.getCause() != null) {
+                return walletError.getCause().getClass().getSimpleName();
+            }
+        }
+        return e.getClass().getSimpleName();
+    }
+
+    private static void parkUntil(long nanoTime) {
+        long remaining;
+        while ((remaining = nanoTime - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,518 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Builds ISO 18013-5 mDoc credentials in-process: an {@code IssuerSigned}
+ * structure whose {@code issuerAuth} is a COSE_Sign1 over the mobile security
+ * object (MSO). Everything is written token by token with a streaming CBOR
+ * generator into a byte buffer, without an intermediate object tree.
+ *
+ * <p>{@link #build()} returns the base64url-encoded {@code IssuerSigned}, the
+ * form accepted by {@link WalletClient#importCredential(String)}. The
+ * unprotected header of {@code issuerAuth} carries the issuer certificate
+ * chain ({@code x5chain}, label 33): the one set with
+ * {@link #issuerCertificateChain(List)}, or a self-signed certificate for the
+ * signing key.
+ *
+ * <p>Claim values may be strings, numbers, booleans, byte arrays, lists, maps,
+ * {@link LocalDate} (encoded as full-date, tag 1004) and {@link Instant}
+ * (encoded as tdate, tag 0).
+ */
+public class MdocCredentialBuilder {
+
+    private static final CBORFactory CBOR = new CBORFactory();
+    private static final SaltSource DEFAULT_SALT_SOURCE = SaltSource.striped();
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64URL_DECODER = Base64.getUrlDecoder();
+    private static final String SELF_SIGNED_ISSUER = "mdoc-issuer.example.com";
+    private static final Duration CERTIFICATE_MARGIN = Duration.ofDays(1);
+
+    private final JWK signingKey;
+    private String docType;
+    private Duration ttl = Duration.ofDays(365);
+    private final Map<String, Map<String, Object>> namespaces = new LinkedHashMap<>();
+    private JWK deviceKey;
+    private SaltSource saltSource = DEFAULT_SALT_SOURCE;
+    private List<X509Certificate> issuerCertificateChain;
+
+    public MdocCredentialBuilder() {
+        this(JwsSupport.generateKey(JWSAlgorithm.ES256));
+    }
+
+    /**
+     * Creates a builder that signs the MSO with {@code signingKey}, an EC
+     * (P-256, P-384, P-521) or Ed25519 key.
+     */
+    public MdocCredentialBuilder(JWK signingKey) {
+        this.signingKey = signingKey;
+    }
+
+    /**
+     * Sets the document type; claims added without a namespace go to the
+     * namespace of the same name, as for the PID.
+     */
+    public MdocCredentialBuilder docType(String docType) {
+        this.docType = docType;
+        return this;
+    }
+
+    public MdocCredentialBuilder ttl(Duration ttl) {
+        this.ttl = ttl;
+        return this;
+    }
+
+    public MdocCredentialBuilder claim(String elementIdentifier, Object value) {
+        if (docType == null) {
+            throw new IllegalStateException("Set docType before adding claims to its namespace");
+        }
+        return claim(docType, elementIdentifier, value);
+    }
+
+    public MdocCredentialBuilder claim(String namespace, String elementIdentifier, Object value) {
+        namespaces.computeIfAbsent(namespace, ns -> new LinkedHashMap<>()).put(elementIdentifier, value);
+        return this;
+    }
+
+    /**
+     * Sets the device key written into the MSO. If none is set, a P-256 key is
+     * generated on the first build and reused.
+     */
+    public MdocCredentialBuilder deviceKey(JWK deviceKey) {
+        this.deviceKey = deviceKey;
+        return this;
+    }
+
+    /**
+     * Sets where the 16-byte {@code random} of each IssuerSignedItem comes from.
+     */
+    public MdocCredentialBuilder saltSource(SaltSource saltSource) {
+        this.saltSource = saltSource;
+        return this;
+    }
+
+    /**
+     * Sets the issuer certificate chain written as {@code x5chain}, leaf
+     * first; the leaf must certify the signing key. If none is set, a
+     * self-signed certificate for the signing key is generated on the first
+     * build and reused.
+     */
+    public MdocCredentialBuilder issuerCertificateChain(List<X509Certificate> chain) {
+        if (chain.isEmpty()) {
+            throw new IllegalArgumentException("Issuer certificate chain must not be empty");
+        }
+        this.issuerCertificateChain = List.copyOf(chain);
+        return this;
+    }
+
+    public List<X509Certificate> getIssuerCertificateChain() {
+        return issuerCertificateChain;
+    }
+
+    public JWK getSigningJwk() {
+        return signingKey;
+    }
+
+    public String build() {
+        return BASE64URL.encodeToString(buildBytes());
+    }
+
+    /**
+     * Returns the CBOR-encoded {@code IssuerSigned} structure.
+     */
+    public byte[] buildBytes() {
+        return compile().mint(Map.of());
+    }
+
+    /**
+     * Builds {@code count} credentials in parallel, in index order. Credential
+     * {@code i} gets the element values returned by {@code claims.apply(i)},
+     * replacing elements of the same identifier in whichever namespace holds
+     * them; new identifiers go to the docType namespace.
+     */
+    public List<String> buildBatch(int count, IntFunction<Map<String, Object>> claims) {
+        Compiled compiled = compile();
+        return IntStream.range(0, count)
+                .parallel()
+                .mapToObj(i -> BASE64URL.encodeToString(compiled.mint(claims.apply(i))))
+                .toList();
+    }
+
+    private Compiled compile() {
+        if (docType == null) {
+            throw new IllegalStateException("docType must be set");
+        }
+        if (deviceKey == null) {
+            deviceKey = JwsSupport.generateKey(JWSAlgorithm.ES256).toPublicJWK();
+        }
+        if (issuerCertificateChain == null) {
+            issuerCertificateChain = List.of(X509Support.selfSigned(signingKey, SELF_SIGNED_ISSUER,
+                    ttl.plus(CERTIFICATE_MARGIN)));
+        }
+        Map<String, Map<String, Object>> copy = new LinkedHashMap<>();
+        namespaces.forEach((ns, elements) -> copy.put(ns, new LinkedHashMap<>(elements)));
+        return new Compiled(signingKey, docType, ttl, copy, deviceKey, saltSource, issuerCertificateChain);
+    }
+
+    /**
+     * Immutable snapshot of the builder with the COSE protected header and the
+     * signer prepared, shared by all credentials of a batch.
+     */
+    private static final class Compiled {
+
+        private final String docType;
+        private final Duration ttl;
+        private final Map<String, Map<String, Object>> namespaces;
+        private final JWK deviceKey;
+        private final SaltSource saltSource;
+        private final JWSHeader jwsHeader;
+        private final JWSSigner signer;
+        private final byte[] protectedHeader;
+        private final String keyId;
+        private final List<byte[]> x5chain;
+
+        Compiled(JWK signingKey, String docType, Duration ttl, Map<String, Map<String, Object>> namespaces,
+                 JWK deviceKey, SaltSource saltSource, List<X509Certificate> certificateChain) {
+            this.docType = docType;
+            this.ttl = ttl;
+            this.namespaces = namespaces;
+            this.deviceKey = deviceKey;
+            this.saltSource = saltSource;
+            JWSAlgorithm algorithm = JwsSupport.algorithmFor(signingKey);
+            this.jwsHeader = new JWSHeader(algorithm);
+            this.signer = JwsSupport.signerFor(signingKey);
+            this.keyId = signingKey.getKeyID();
+            this.x5chain = certificateChain.stream().map(MdocCredentialBuilder::encoded).toList();
+            int coseAlgorithm = coseAlgorithm(algorithm);
+            this.protectedHeader = encode(gen -> {
+                gen.writeStartObject(null, 1);
+                gen.writeFieldId(1);
+                gen.writeNumber(coseAlgorithm);
+                gen.writeEndObject();
+            });
+        }
+
+        byte[] mint(Map<String, Object> overrides) {
+            Map<String, Map<String, Object>> elements = apply(overrides);
+            MessageDigest sha256 = sha256();
+
+            // IssuerSignedItems, each encoded once and referenced by its digest
+            Map<String, List<byte[]>> items = new LinkedHashMap<>();
+            Map<String, List<byte[]>> digests = new LinkedHashMap<>();
+            int digestId = 0;
+            for (var namespace : elements.entrySet()) {
+                List<byte[]> nsItems = new ArrayList<>();
+                List<byte[]> nsDigests = new ArrayList<>();
+                for (var element : namespace.getValue().entrySet()) {
+                    int id = digestId++;
+                    byte[] random = BASE64URL_DECODER.decode(saltSource.nextSalt());
+                    byte[] item = encode(gen -> {
+                        gen.writeStartObject(null, 4);
+                        gen.writeFieldName("digestID");
+                        gen.writeNumber(id);
+                        gen.writeFieldName("random");
+                        gen.writeBinary(random);
+                        gen.writeFieldName("elementIdentifier");
+                        gen.writeString(element.getKey());
+                        gen.writeFieldName("elementValue");
+                        writeValue(gen, element.getValue());
+                        gen.writeEndObject();
+                    });
+                    nsItems.add(item);
+                    nsDigests.add(sha256.digest(encode(gen -> writeEmbedded(gen, item))));
+                }
+                items.put(namespace.getKey(), nsItems);
+                digests.put(namespace.getKey(), nsDigests);
+            }
+
+            Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+            byte[] mso = encode(gen -> writeMso(gen, digests, now));
+            byte[] msoBytes = encode(gen -> writeEmbedded(gen, mso));
+            byte[] signature = sign(encode(gen -> {
+                gen.writeStartArray(null, 4);
+                gen.writeString("Signature1");
+                gen.writeBinary(protectedHeader);
+                gen.writeBinary(new byte[0]);
+                gen.writeBinary(msoBytes);
+                gen.writeEndArray();
+            }));
+
+            return encode(gen -> {
+                gen.writeStartObject(null, 2);
+                gen.writeFieldName("nameSpaces");
+                gen.writeStartObject(null, items.size());
+                for (var namespace : items.entrySet()) {
+                    gen.writeFieldName(namespace.getKey());
+                    gen.writeStartArray(null, namespace.getValue().size());
+                    for (byte[] item : namespace.getValue()) {
+                        writeEmbedded(gen, item);
+                    }
+                    gen.writeEndArray();
+                }
+                gen.writeEndObject();
+
+                gen.writeFieldName("issuerAuth");
+                gen.writeStartArray(null, 4);
+                gen.writeBinary(protectedHeader);
+                gen.writeStartObject(null, keyId != null ? 2 : 1);
+                if (keyId != null) {
+                    gen.writeFieldId(4);
+                    gen.writeBinary(keyId.getBytes(StandardCharsets.UTF_8));
+                }
+                // x5chain: a single certificate as bstr, a longer chain as array (RFC 9360)
+                gen.writeFieldId(33);
+                if (x5chain.size() == 1) {
+                    gen.writeBinary(x5chain.getFirst());
+                } else {
+                    gen.writeStartArray(null, x5chain.size());
+                    for (byte[] certificate : x5chain) {
+                        gen.writeBinary(certificate);
+                    }
+                    gen.writeEndArray();
+                }
+                gen.writeEndObject();
+                gen.writeBinary(msoBytes);
+                gen.writeBinary(signature);
+                gen.writeEndArray();
+                gen.writeEndObject();
+            });
+        }
+
+        private Map<String, Map<String, Object>> apply(Map<String, Object> overrides) {
+            if (overrides.isEmpty()) {
+                return namespaces;
+            }
+            Map<String, Map<String, Object>> merged = new LinkedHashMap<>();
+            namespaces.forEach((ns, elements) -> merged.put(ns, new LinkedHashMap<>(elements)));
+            overrides.forEach((identifier, value) -> merged.values().stream()
+                    .filter(elements -> elements.containsKey(identifier))
+                    .findFirst()
+                    .orElseGet(() -> merged.computeIfAbsent(docType, ns -> new LinkedHashMap<>()))
+                    .put(identifier, value));
+            return merged;
+        }
+
+        private void writeMso(CBORGenerator gen, Map<String, List<byte[]>> digests, Instant now) throws IOException {
+            gen.writeStartObject(null, 6);
+            gen.writeFieldName("version");
+            gen.writeString("1.0");
+            gen.writeFieldName("digestAlgorithm");
+            gen.writeString("SHA-256");
+
+            gen.writeFieldName("valueDigests");
+            gen.writeStartObject(null, digests.size());
+            int digestId = 0;
+            for (var namespace : digests.entrySet()) {
+                gen.writeFieldName(namespace.getKey());
+                gen.writeStartObject(null, namespace.getValue().size());
+                for (byte[] digest : namespace.getValue()) {
+                    gen.writeFieldId(digestId++);
+                    gen.writeBinary(digest);
+                }
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+
+            gen.writeFieldName("deviceKeyInfo");
+            gen.writeStartObject(null, 1);
+            gen.writeFieldName("deviceKey");
+            writeCoseKey(gen, deviceKey);
+            gen.writeEndObject();
+
+            gen.writeFieldName("docType");
+            gen.writeString(docType);
+
+            gen.writeFieldName("validityInfo");
+            gen.writeStartObject(null, 3);
+            gen.writeFieldName("signed");
+            writeValue(gen, now);
+            gen.writeFieldName("validFrom");
+            writeValue(gen, now);
+            gen.writeFieldName("validUntil");
+            writeValue(gen, now.plus(ttl));
+            gen.writeEndObject();
+
+            gen.writeEndObject();
+        }
+
+        private byte[] sign(byte[] sigStructure) {
+            try {
+                // JWS ECDSA and EdDSA signatures are raw r||s resp. R||S, as COSE expects
+                return signer.sign(jwsHeader, sigStructure).decode();
+            } catch (JOSEException e) {
+                throw new IllegalStateException("Failed to sign mDoc MSO", e);
+            }
+        }
+    }
+
+    private static byte[] encoded(X509Certificate certificate) {
+        try {
+            return certificate.getEncoded();
+        } catch (CertificateEncodingException e) {
+            throw new IllegalArgumentException("Cannot encode issuer certificate", e);
+        }
+    }
+
+    // #6.24(bstr .cbor item)
+    private static void writeEmbedded(CBORGenerator gen, byte[] encoded) throws IOException {
+        gen.writeTag(24);
+        gen.writeBinary(encoded);
+    }
+
+    private static void writeCoseKey(CBORGenerator gen, JWK key) throws IOException {
+        if (key instanceof ECKey ecKey) {
+            gen.writeStartObject(null, 4);
+            gen.writeFieldId(1);
+            gen.writeNumber(2);
+            gen.writeFieldId(-1);
+            gen.writeNumber(coseCurve(ecKey.getCurve()));
+            gen.writeFieldId(-2);
+            gen.writeBinary(ecKey.getX().decode());
+            gen.writeFieldId(-3);
+            gen.writeBinary(ecKey.getY().decode());
+            gen.writeEndObject();
+        } else if (key instanceof OctetKeyPair okp && Curve.Ed25519.equals(okp.getCurve())) {
+            gen.writeStartObject(null, 3);
+            gen.writeFieldId(1);
+            gen.writeNumber(1);
+            gen.writeFieldId(-1);
+            gen.writeNumber(6);
+            gen.writeFieldId(-2);
+            gen.writeBinary(okp.getX().decode());
+            gen.writeEndObject();
+        } else {
+            throw new IllegalArgumentException("Unsupported device key type: " + key.getKeyType());
+        }
+    }
+
+    private static void writeValue(CBORGenerator gen, Object value) throws IOException {
+        switch (value) {
+            case null -> gen.writeNull();
+            case String s -> gen.writeString(s);
+            case Boolean b -> gen.writeBoolean(b);
+            case Double d -> gen.writeNumber(d);
+            case Float f -> gen.writeNumber(f);
+            case BigInteger i -> gen.writeNumber(i);
+            case BigDecimal d -> gen.writeNumber(d);
+            case Number n -> gen.writeNumber(n.longValue());
+            case byte[] bytes -> gen.writeBinary(bytes);
+            case LocalDate date -> {
+                gen.writeTag(1004);
+                gen.writeString(date.toString());
+            }
+            case Instant instant -> {
+                gen.writeTag(0);
+                gen.writeString(instant.truncatedTo(ChronoUnit.SECONDS).toString());
+            }
+            case Map<?, ?> map -> {
+                gen.writeStartObject(map, map.size());
+                for (var entry : map.entrySet()) {
+                    gen.writeFieldName(String.valueOf(entry.getKey()));
+                    writeValue(gen, entry.getValue());
+                }
+                gen.writeEndObject();
+            }
+            case List<?> list -> {
+                gen.writeStartArray(list, list.size());
+                for (Object element : list) {
+                    writeValue(gen, element);
+                }
+                gen.writeEndArray();
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unsupported mDoc claim value type: " + value.getClass().getName());
+        }
+    }
+
+    private static byte[] encode(CborWriter writer) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (CBORGenerator gen = CBOR.createGenerator(out)) {
+            writer.write(gen);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode mDoc", e);
+        }
+        return out.toByteArray();
+    }
+
+    private static int coseAlgorithm(JWSAlgorithm algorithm) {
+        if (JWSAlgorithm.ES256.equals(algorithm)) {
+            return -7;
+        } else if (JWSAlgorithm.ES384.equals(algorithm)) {
+            return -35;
+        } else if (JWSAlgorithm.ES512.equals(algorithm)) {
+            return -36;
+        } else if (JWSAlgorithm.EdDSA.equals(algorithm)) {
+            return -8;
+        }
+        throw new IllegalArgumentException("No COSE algorithm for " + algorithm);
+    }
+
+    private static int coseCurve(Curve curve) {
+        if (Curve.P_256.equals(curve)) {
+            return 1;
+        } else if (Curve.P_384.equals(curve)) {
+            return 2;
+        } else if (Curve.P_521.equals(curve)) {
+            return 3;
+        }
+        throw new IllegalArgumentException("No COSE curve for " + curve);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CborWriter {
+        void write(CBORGenerator gen) throws IOException;
+    }
+}
@@ -15,29 +15,45 @@
  */
 package io.github.dominikschlosser.oid4vc;
 
+import com.github.dockerjava.api.command.InspectContainerResponse;
 import org.slf4j.LoggerFactory;
 import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
 import org.testcontainers.containers.output.Slf4jLogConsumer;
 import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.images.builder.Transferable;
 import org.testcontainers.utility.DockerImageName;
+import org.testcontainers.utility.MountableFile;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
 
 public class Oid4vcContainer extends GenericContainer<Oid4vcContainer> {
 
     private static final String DEFAULT_IMAGE = "ghcr.io/dominikschlosser/oid4vc-dev";
     private static final int WALLET_PORT = 8085;
+    private static final Map<Object, Long> INSTANCE_IDS = new WeakHashMap<>();
+    private static final AtomicLong NEXT_INSTANCE_ID = new AtomicLong();
 
+    private final DockerImageName imageName;
     private boolean includeDefaultPid = true;
     private boolean autoAccept = true;
     private boolean statusList = false;
     private String statusListBaseUrl;
+    private String networkAlias;
     private CredentialFormat preferredFormat;
     private String sessionTranscript;
     private PidClaims customPidClaims;
     private String customPidJson;
     private WalletClient cachedClient;
+    private final Map<String, Object> copiedContent = new TreeMap<>();
+    private ContainerLifecycleEvent pendingLifecycleEvent;
 
     public Oid4vcContainer() {
         this(DockerImageName.parse(DEFAULT_IMAGE));
@@ -49,6 +65,7 @@ public class Oid4vcContainer extends GenericContainer<Oid4vcContainer> {
 
     public Oid4vcContainer(DockerImageName dockerImageName) {
         super(dockerImageName);
+        this.imageName = dockerImageName;
         addExposedPort(WALLET_PORT);
         waitingFor(Wait.forHttp("/").forPort(WALLET_PORT));
         withLogConsumer(new Slf4jLogConsumer(LoggerFactory.getLogger("oid4vp-dev")));
@@ -112,8 +129,102 @@ public class Oid4vcContainer extends GenericContainer<Oid4vcContainer> {
         return withExtraHost("localhost", "host-gateway");
     }
 
+    /**
+     * Attaches the wallet to {@code network} under {@code alias}, so other
+     * containers on it reach the wallet at {@link #getNetworkBaseUrl()} directly
+     * over the bridge network instead of through the host's port mapping.
+     *
+     * <p>Unless {@link #withStatusListBaseUrl(String)} is set, credentials then
+     * reference the status list by its in-network URL, so verifiers in the same
+     * network can fetch it.
+     */
+    public Oid4vcContainer withSharedNetwork(Network network, String alias) {
+        this.networkAlias = alias;
+        return withNetwork(network).withNetworkAliases(alias);
+    }
+
+    /**
+     * Tracks copied files for {@link #configurationKey()}, since
+     * {@link GenericContainer} only exposes them through deprecated API.
+     */
+    @Override
+    public Oid4vcContainer withCopyFileToContainer(MountableFile mountableFile, String containerPath) {
+        copiedContent.put(containerPath,
+                mountableFile.getResolvedPath() + ":" + Integer.toOctalString(mountableFile.getFileMode()));
+        return super.withCopyFileToContainer(mountableFile, containerPath);
+    }
+
+    /**
+     * Tracks content copied with {@link #withCopyToContainer(Transferable, String)},
+     * which {@link GenericContainer} does not expose, for {@link #configurationKey()}.
+     */
+    @Override
+    public Oid4vcContainer withCopyToContainer(Transferable transferable, String containerPath) {
+        copiedContent.put(containerPath, contentKey(transferable));
+        return super.withCopyToContainer(transferable, containerPath);
+    }
+
+    /**
+     * Identifies containers that would start identically. Covers the image,
+     * wallet options, PID claims, extra hosts, environment, labels, binds,
+     * files and content copied into the container, the network instance and
+     * network aliases. Wait strategy, startup timeout and other
+     * {@link GenericContainer} settings are not compared; containers that
+     * differ only there are treated as equal. Used by {@link WalletRegistry}
+     * to share containers.
+     */
+    public String configurationKey() {
+        List<Object> parts = new ArrayList<>();
+        // getDockerImageName() would resolve the image, which pulls it
+        parts.add(imageName.asCanonicalNameString());
+        parts.add(includeDefaultPid);
+        parts.add(resolveCustomPidJson());
+        parts.add(buildServeFlags());
+        parts.add(new TreeSet<>(getExtraHosts()));
+        parts.add(new TreeMap<>(getEnvMap()));
+        parts.add(new TreeMap<>(getLabels()));
+        parts.add(getBinds().stream().map(Object::toString).sorted().toList());
+        parts.add(copiedContent);
+        // Network.getId() would create the network
+        parts.add(getNetwork() == null ? null : "network#" + instanceId(getNetwork()));
+        // every container gets a random "tc-" alias, which must not split the key
+        parts.add(getNetworkAliases().stream().filter(alias -> !alias.startsWith("tc-")).sorted().toList());
+        return parts.toString();
+    }
+
+    private static String contentKey(Transferable transferable) {
+        try {
+            CRC32 checksum = new CRC32();
+            transferable.updateChecksum(checksum);
+            return transferable.getSize() + ":" + Long.toHexString(checksum.getValue());
+        } catch (UnsupportedOperationException e) {
+            return "transferable#" + instanceId(transferable);
+        }
+    }
+
+    // Numbers objects by equality, which is identity for networks and most transferables.
+    private static long instanceId(Object instance) {
+        synchronized (INSTANCE_IDS) {
+            return INSTANCE_IDS.computeIfAbsent(instance, k -> NEXT_INSTANCE_ID.incrementAndGet());
+        }
+    }
+
+    @Override
+    public void stop() {
+        String containerId = getContainerId();
+        if (containerId == null) {
+            // never started: nothing to stop and nothing to record
+            super.stop();
+            return;
+        }
+        ContainerLifecycleEvent event = ContainerLifecycleEvent.begin("stop");
+        super.stop();
+        event.end(imageName, containerId, false);
+    }
+
     @Override
     protected void configure() {
+        ContainerLifecycleEvent event = ContainerLifecycleEvent.begin("configure");
         String claimsJson = resolveCustomPidJson();
 
         if (claimsJson != null) {
@@ -121,6 +232,27 @@ public class Oid4vcContainer extends GenericContainer<Oid4vcContainer> {
         } else {
             configureStandard();
         }
+        event.end(imageName, null, false);
+        // "start" follows "configure" rather than enclosing it, so the phases add up
+        pendingLifecycleEvent = ContainerLifecycleEvent.begin("start");
+    }
+
+    @Override
+    protected void containerIsStarting(InspectContainerResponse containerInfo, boolean reused) {
+        if (pendingLifecycleEvent != null) {
+            pendingLifecycleEvent.end(imageName, containerInfo.getId(), reused);
+        }
+        pendingLifecycleEvent = ContainerLifecycleEvent.begin("ready");
+        super.containerIsStarting(containerInfo, reused);
+    }
+
+    @Override
+    protected void containerIsStarted(InspectContainerResponse containerInfo, boolean reused) {
+        super.containerIsStarted(containerInfo, reused);
+        if (pendingLifecycleEvent != null) {
+            pendingLifecycleEvent.end(imageName, containerInfo.getId(), reused);
+            pendingLifecycleEvent = null;
+        }
     }
 
     private List<String> buildServeFlags() {
@@ -135,6 +267,9 @@ public class Oid4vcContainer extends GenericContainer<Oid4vcContainer> {
             if (statusListBaseUrl != null) {
                 flags.add("--base-url");
                 flags.add(statusListBaseUrl);
+            } else if (networkAlias != null) {
+                flags.add("--base-url");
+                flags.add(getNetworkBaseUrl());
             }
         }
         if (preferredFormat != null) {
@@ -195,6 +330,27 @@ public class Oid4vcContainer extends GenericContainer<Oid4vcContainer> {
         return getBaseUrl() + "/api/statuslist";
     }
 
+    /**
+     * Returns the base URL under which containers in the shared network reach
+     * the wallet.
+     *
+     * @throws IllegalStateException if {@link #withSharedNetwork(Network, String)} was not used
+     */
+    public String getNetworkBaseUrl() {
+        if (networkAlias == null) {
+            throw new IllegalStateException("Wallet is not attached to a shared network, use withSharedNetwork()");
+        }
+        return "http://" + networkAlias + ":" + WALLET_PORT;
+    }
+
+    public String getNetworkAuthorizeUrl() {
+        return getNetworkBaseUrl() + "/authorize";
+    }
+
+    public String getNetworkStatusListUrl() {
+        return getNetworkBaseUrl() + "/api/statuslist";
+    }
+
     public OfferResponse acceptCredentialOffer(String uri) {
         return client().acceptCredentialOffer(uri);
     }
@@ -207,7 +363,7 @@ public class Oid4vcContainer extends GenericContainer<Oid4vcContainer> {
         return client().getCredentials();
     }
 
-    public WalletClient client() {
+    public synchronized WalletClient client() {
         if (cachedClient == null) {
             cachedClient = new WalletClient(getBaseUrl());
         }
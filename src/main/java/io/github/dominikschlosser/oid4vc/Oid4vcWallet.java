@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Injects a wallet leased from a pool for the duration of a test, so tests
+ * can run in parallel without sharing wallet state. Supported parameter types
+ * are {@link Oid4vcContainer}, {@link EmbeddedWallet} and {@link WalletClient}.
+ *
+ * <pre>{@code
+ * @Test
+ * void presentsPid(@Oid4vcWallet Oid4vcContainer wallet) { ... }
+ *
+ * @Test
+ * void deniesConsent(@Oid4vcWallet(exclusive = true) WalletClient wallet) {
+ *     wallet.setNextError("access_denied", "denied");
+ *     ...
+ * }
+ * }</pre>
+ *
+ * <p>All parameters of one test with the same backend receive the same
+ * wallet, not one lease each. Wallets injected into a constructor or a
+ * {@code @BeforeAll} method are held for the whole test class, and its test
+ * methods receive those same wallets. See {@link Oid4vcWalletExtension} for
+ * pooling and reset.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ExtendWith(Oid4vcWalletExtension.class)
+public @interface Oid4vcWallet {
+
+    /**
+     * Container image; empty for the default image. Ignored for embedded
+     * wallets.
+     */
+    String image() default "";
+
+    /**
+     * Backs a {@link WalletClient} parameter with an {@link EmbeddedWallet}
+     * instead of a container.
+     */
+    boolean embedded() default false;
+
+    /**
+     * Runs the test while no other {@code @Oid4vcWallet} test runs, for tests
+     * that depend on configuration outside their own wallet. Applies to the
+     * whole test if set on any of its parameters.
+     */
+    boolean exclusive() default false;
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolutionException;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+import java.lang.reflect.Executable;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Resolves {@link Oid4vcWallet} parameters from JVM-wide wallet pools, one
+ * per image plus one for embedded wallets.
+ *
+ * <p>A pool starts wallets lazily, only when every existing one is leased,
+ * up to {@code oid4vc.wallet.pool.size} (a JUnit configuration parameter,
+ * default: number of processors). Every wallet has the default PID and the
+ * status list enabled. When a test finishes, its wallet is reset: credentials
+ * added during the test are deleted, the initial ones are unrevoked, and
+ * next error and preferred format are cleared. A wallet whose initial
+ * credentials were deleted is stopped and replaced.
+ *
+ * <p>Tests hold a shared lock while they use wallets; tests with any
+ * {@code exclusive} parameter hold it exclusively. Wallets injected into a
+ * constructor or {@code @BeforeAll} method are leased, locked and reset per
+ * test class rather than per test, and test methods of that class receive the
+ * same wallets. Pools are stopped when the test run ends.
+ */
+public class Oid4vcWalletExtension implements ParameterResolver {
+
+    static final String POOL_SIZE_PARAMETER = "oid4vc.wallet.pool.size";
+
+    private static final ExtensionContext.Namespace NAMESPACE =
+            ExtensionContext.Namespace.create(Oid4vcWalletExtension.class);
+    private static final int LOCK_PERMITS = Integer.MAX_VALUE;
+    static final Semaphore LOCK = new Semaphore(LOCK_PERMITS, true);
+    private static final String LOCK_KEY = "lock";
+    private static final Set<Class<?>> SUPPORTED_TYPES =
+            Set.of(Oid4vcContainer.class, EmbeddedWallet.class, WalletClient.class);
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        return parameterContext.isAnnotated(Oid4vcWallet.class)
+                && SUPPORTED_TYPES.contains(parameterContext.getParameter().getType());
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameterContext, ExtensionContext extensionContext) {
+        Oid4vcWallet annotation = parameterContext.findAnnotation(Oid4vcWallet.class).orElseThrow();
+        Class<?> type = parameterContext.getParameter().getType();
+        boolean embedded = type == EmbeddedWallet.class || (type == WalletClient.class && annotation.embedded());
+        String poolKey = embedded ? "embedded" : "container:" + annotation.image();
+
+        ExtensionContext.Store store = extensionContext.getStore(NAMESPACE);
+        lock(store, parameterContext.getDeclaringExecutable());
+
+        WalletPool pool = extensionContext.getRoot().getStore(NAMESPACE).getOrComputeIfAbsent(
+                poolKey, key -> new WalletPool(poolSize(extensionContext),
+                        embedded ? WalletPool::embedded : () -> WalletPool.container(annotation.image())),
+                WalletPool.class);
+        WalletPool.Lease lease = store.getOrComputeIfAbsent("lease:" + poolKey, key -> pool.acquire(),
+                WalletPool.Lease.class);
+
+        if (type == WalletClient.class) {
+            return lease.client();
+        }
+        if (!type.isInstance(lease.wallet())) {
+            throw new ParameterResolutionException("Cannot inject " + type.getSimpleName() + " from the "
+                    + poolKey + " pool");
+        }
+        return lease.wallet();
+    }
+
+    /*
+     * Taken before any wallet, in the strongest mode any parameter of the
+     * executable asks for, so parameters of one test cannot deadlock each
+     * other. Store lookups fall back to the class context, so a test inside a
+     * class that already holds the lock only takes the missing permits.
+     */
+    private static void lock(ExtensionContext.Store store, Executable executable) {
+        boolean exclusive = Arrays.stream(executable.getParameters())
+                .map(parameter -> parameter.getAnnotation(Oid4vcWallet.class))
+                .anyMatch(annotation -> annotation != null && annotation.exclusive());
+        int required = exclusive ? LOCK_PERMITS : 1;
+        LockHandle held = store.get(LOCK_KEY, LockHandle.class);
+        int heldPermits = held == null ? 0 : held.totalPermits;
+        if (heldPermits < required) {
+            store.put(LOCK_KEY, new LockHandle(required, required - heldPermits));
+        }
+    }
+
+    private static int poolSize(ExtensionContext context) {
+        return context.getConfigurationParameter(POOL_SIZE_PARAMETER, Integer::parseInt)
+                .orElse(Runtime.getRuntime().availableProcessors());
+    }
+
+    private static final class LockHandle implements ExtensionContext.Store.CloseableResource {
+
+        private final int totalPermits;
+        private final int permits;
+
+        LockHandle(int totalPermits, int permits) {
+            this.totalPermits = totalPermits;
+            this.permits = permits;
+            LOCK.acquireUninterruptibly(permits);
+        }
+
+        @Override
+        public void close() {
+            LOCK.release(permits);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Runs an arbitrary {@link WalletClient} operation at a fixed arrival rate.
+ * Each operation is assigned an intended start time up front and its latency
+ * is measured from there, so a stall in the wallet or the system under test
+ * inflates the reported percentiles instead of quietly lowering the request
+ * rate (coordinated omission).
+ *
+ * <pre>{@code
+ * LoadReport report = new OpenLoopScheduler(500)
+ *         .duration(Duration.ofMinutes(1))
+ *         .run(WalletClient::getCredentials, wallet.client());
+ * report.latencies().writeJson(Path.of("target/credentials-latency.json"));
+ * }</pre>
+ */
+public class OpenLoopScheduler {
+
+    private final double ratePerSecond;
+    private int maxInFlight = LoadRunner.DEFAULT_MAX_IN_FLIGHT;
+    private Duration duration;
+    private long operations;
+
+    public OpenLoopScheduler(double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Rate must be positive: " + ratePerSecond);
+        }
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * Caps the number of operations in flight. Operations that cannot start on
+     * time because of the cap still count their waiting time as latency.
+     */
+    public OpenLoopScheduler maxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        return this;
+    }
+
+    public OpenLoopScheduler duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public OpenLoopScheduler operations(long operations) {
+        this.operations = operations;
+        return this;
+    }
+
+    public LoadReport run(Consumer<WalletClient> operation, WalletClient... clients) {
+        return run(operation, List.of(clients));
+    }
+
+    public LoadReport run(Consumer<WalletClient> operation, List<WalletClient> clients) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("At least one wallet client is required");
+        }
+        List<WalletClient> targets = List.copyOf(clients);
+        LoadRunner runner = new LoadRunner(maxInFlight, ratePerSecond, duration, operations);
+        return runner.run(sequence -> targets.get((int) (sequence % targets.size())), operation::accept);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Drives presentation requests through one or more wallets to load-test a
+ * verifier. Request URIs are pulled from the supplier outside of the timed
+ * section, so only the wallet round trip (including the wallet's calls to the
+ * verifier) shows up in the latency distribution. The supplier is called
+ * concurrently and must be thread-safe.
+ */
+public class PresentationLoadDriver {
+
+    private final Supplier<String> requestUris;
+    private final List<WalletClient> clients;
+    private int concurrency;
+    private double ratePerSecond;
+    private Duration duration;
+    private long requests;
+
+    public PresentationLoadDriver(Supplier<String> requestUris, WalletClient... clients) {
+        this(requestUris, List.of(clients));
+    }
+
+    public PresentationLoadDriver(Supplier<String> requestUris, List<WalletClient> clients) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("At least one wallet client is required");
+        }
+        this.requestUris = requestUris;
+        this.clients = List.copyOf(clients);
+    }
+
+    public PresentationLoadDriver concurrency(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Starts requests on a fixed schedule instead of back-to-back. The configured
+     * concurrency then caps the number of requests in flight; without one, up to
+     * 256 run at once.
+     */
+    public PresentationLoadDriver ratePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+        return this;
+    }
+
+    public PresentationLoadDriver duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public PresentationLoadDriver requests(long requests) {
+        this.requests = requests;
+        return this;
+    }
+
+    public LoadReport run() {
+        LoadRunner runner = new LoadRunner(
+                LoadRunner.workers(concurrency, ratePerSecond), ratePerSecond, duration, requests);
+        return runner.run(
+                sequence -> new Attempt(clients.get((int) (sequence % clients.size())), requestUris.get()),
+                attempt -> attempt.client().acceptPresentationRequest(attempt.uri()));
+    }
+
+    private record Attempt(WalletClient client, String uri) {
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.nio.ByteBuffer;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Supplies the salts of SD-JWT disclosures. Implementations must be
+ * thread-safe, since templates mint from many threads at once.
+ */
+@FunctionalInterface
+public interface SaltSource {
+
+    /** Number of random bytes in every salt produced by the built-in sources. */
+    int SALT_LENGTH = 16;
+
+    /**
+     * Returns a fresh base64url-encoded salt.
+     */
+    String nextSalt();
+
+    /**
+     * Returns the source for credential {@code index} of a batch. Batch minting
+     * calls this once per credential, so a source can make every credential
+     * independent of the order in which parallel workers reach it. The
+     * built-in random sources return themselves.
+     */
+    default SaltSource forCredential(long index) {
+        return this;
+    }
+
+    /**
+     * One {@link SecureRandom} shared by all threads. On Linux its native
+     * implementation serializes callers, so it only suits single-threaded use.
+     */
+    static SaltSource shared() {
+        SecureRandom random = new SecureRandom();
+        return () -> {
+            byte[] salt = new byte[SALT_LENGTH];
+            random.nextBytes(salt);
+            return encode(salt);
+        };
+    }
+
+    /**
+     * A fixed set of DRBG instances, each seeded once from the system entropy
+     * source; every thread uses the one its id hashes to. Parallel minting
+     * rarely contends on a lock, and unlike {@link #threadLocal()} a new
+     * (virtual) thread does not cost a fresh seeding. {@code stripes} is
+     * rounded up to a power of two.
+     */
+    static SaltSource striped(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be positive: " + stripes);
+        }
+        SecureRandom[] randoms = new SecureRandom[stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1];
+        for (int i = 0; i < randoms.length; i++) {
+            randoms[i] = newDrbg();
+        }
+        int mask = randoms.length - 1;
+        return () -> {
+            byte[] salt = new byte[SALT_LENGTH];
+            randoms[(int) SeededSaltSource.mix(Thread.currentThread().threadId()) & mask].nextBytes(salt);
+            return encode(salt);
+        };
+    }
+
+    /**
+     * {@link #striped(int)} with two stripes per processor. This is the default
+     * of the credential builders.
+     */
+    static SaltSource striped() {
+        return striped(2 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * A separate DRBG instance per thread, each seeded once from the system
+     * entropy source, so parallel minting does not contend on a lock. Suits
+     * long-lived platform threads; with a virtual thread per task every task
+     * seeds a new DRBG, so prefer {@link #striped()} there.
+     */
+    static SaltSource threadLocal() {
+        ThreadLocal<SecureRandom> randoms = ThreadLocal.withInitial(SaltSource::newDrbg);
+        return () -> {
+            byte[] salt = new byte[SALT_LENGTH];
+            randoms.get().nextBytes(salt);
+            return encode(salt);
+        };
+    }
+
+    /**
+     * Like {@link #threadLocal()}, but each thread draws {@code batchSize} salts
+     * at a time and hands them out from a buffer.
+     */
+    static SaltSource batched(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        ThreadLocal<SecureRandom> randoms = ThreadLocal.withInitial(SaltSource::newDrbg);
+        ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(
+                () -> ByteBuffer.allocate(batchSize * SALT_LENGTH).position(batchSize * SALT_LENGTH));
+        return () -> {
+            ByteBuffer buffer = buffers.get();
+            if (!buffer.hasRemaining()) {
+                randoms.get().nextBytes(buffer.array());
+                buffer.clear();
+            }
+            byte[] salt = new byte[SALT_LENGTH];
+            buffer.get(salt);
+            return encode(salt);
+        };
+    }
+
+    /**
+     * Deterministic, NOT random salts derived from {@code seed} and a counter,
+     * for byte-identical fixtures across runs. Batch credential {@code i} draws
+     * from {@link #forCredential(long) forCredential(i)}, a source seeded from
+     * {@code seed} and {@code i}, so parallel batches are reproducible too;
+     * single {@code build()} and {@code mint()} calls are reproducible when made
+     * in the same order. Never use this for anything but tests.
+     */
+    static SaltSource seeded(long seed) {
+        return new SeededSaltSource(seed);
+    }
+
+    private static SecureRandom newDrbg() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+
+    private static String encode(byte[] salt) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(salt);
+    }
+}
@@ -15,30 +15,26 @@
  */
 package io.github.dominikschlosser.oid4vc;
 
-import com.authlete.sd.Disclosure;
-import com.authlete.sd.SDJWT;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
-import com.nimbusds.jose.JWSHeader;
-import com.nimbusds.jose.crypto.ECDSASigner;
-import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
 import com.nimbusds.jose.jwk.JWK;
-import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
-import com.nimbusds.jwt.JWTClaimsSet;
-import com.nimbusds.jwt.SignedJWT;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 
 public class SdJwtCredentialBuilder {
 
-    private final ECKey signingKey;
+    private static final SaltSource DEFAULT_SALT_SOURCE = SaltSource.striped();
+
+    private final SigningKeyPool keyPool;
+    private final SigningKeyPolicy keyPolicy;
+    private JWK signingKey;
+    private JWSAlgorithm algorithm;
     private String vct;
     private String issuer;
     private Duration ttl = Duration.ofHours(24);
@@ -46,19 +42,58 @@ public class SdJwtCredentialBuilder {
     private final Map<String, Map<String, Object>> objectClaims = new LinkedHashMap<>();
     private final Map<String, List<?>> arrayClaims = new LinkedHashMap<>();
     private JWK holderBindingKey;
+    private FixtureCache fixtureCache;
+    private SaltSource saltSource = DEFAULT_SALT_SOURCE;
 
     public SdJwtCredentialBuilder() {
-        try {
-            this.signingKey = new ECKeyGenerator(Curve.P_256).generate();
-        } catch (JOSEException e) {
-            throw new IllegalStateException("Failed to generate EC key", e);
-        }
+        this(JwsSupport.generateKey(JWSAlgorithm.ES256));
     }
 
-    public SdJwtCredentialBuilder(ECKey signingKey) {
+    /**
+     * Creates a builder that signs with {@code signingKey}. EC (P-256, P-384,
+     * P-521), Ed25519, RSA and symmetric keys are supported; the JWS algorithm
+     * is taken from the key's {@code alg} or derived from its type and curve,
+     * e.g. ES384 for P-384 and EdDSA for Ed25519.
+     */
+    public SdJwtCredentialBuilder(JWK signingKey) {
+        this.keyPool = null;
+        this.keyPolicy = SigningKeyPolicy.FIXED;
         this.signingKey = signingKey;
     }
 
+    // kept for callers compiled against the ECKey-only constructor
+    public SdJwtCredentialBuilder(ECKey signingKey) {
+        this((JWK) signingKey);
+    }
+
+    /**
+     * Creates a builder that draws its signing keys from {@code keyPool} instead
+     * of generating one up front. With {@link SigningKeyPolicy#FRESH_PER_CREDENTIAL},
+     * {@link #getSigningKey()} returns the key of the most recent {@link #build()}.
+     */
+    public SdJwtCredentialBuilder(SigningKeyPool keyPool, SigningKeyPolicy keyPolicy) {
+        this.keyPool = keyPool;
+        this.keyPolicy = keyPolicy;
+        this.signingKey = keyPolicy == SigningKeyPolicy.FIXED ? keyPool.take() : null;
+    }
+
+    /**
+     * Creates a builder with a freshly generated key for {@code algorithm}.
+     * Ed25519 keys are generated with the JDK, so no Tink dependency is needed.
+     */
+    public static SdJwtCredentialBuilder forAlgorithm(JWSAlgorithm algorithm) {
+        return new SdJwtCredentialBuilder(JwsSupport.generateKey(algorithm)).algorithm(algorithm);
+    }
+
+    /**
+     * Overrides the JWS algorithm derived from the signing key, e.g. PS256 for
+     * an RSA key.
+     */
+    public SdJwtCredentialBuilder algorithm(JWSAlgorithm algorithm) {
+        this.algorithm = algorithm;
+        return this;
+    }
+
     public SdJwtCredentialBuilder vct(String vct) {
         this.vct = vct;
         return this;
@@ -94,70 +129,112 @@ public class SdJwtCredentialBuilder {
         return this;
     }
 
-    public ECKey getSigningKey() {
-        return signingKey;
+    /**
+     * Sets where disclosure salts come from. Defaults to {@link SaltSource#striped()};
+     * use {@link SaltSource#seeded(long)} for reproducible fixtures.
+     */
+    public SdJwtCredentialBuilder saltSource(SaltSource saltSource) {
+        this.saltSource = saltSource;
+        return this;
     }
 
-    public String build() {
-        List<Disclosure> disclosures = new ArrayList<>();
+    /**
+     * Lets {@link #build()} reuse credentials from {@code cache} that were built
+     * from identical inputs, across JVM runs. Combine with a signing key from
+     * {@link FixtureCache#signingKey(String)} so the inputs stay stable.
+     */
+    public SdJwtCredentialBuilder cache(FixtureCache fixtureCache) {
+        this.fixtureCache = fixtureCache;
+        return this;
+    }
 
-        // Create disclosures for flat claims
-        for (var entry : flatClaims.entrySet()) {
-            disclosures.add(new Disclosure(entry.getKey(), entry.getValue()));
+    /**
+     * Returns the signing key if it is an EC key.
+     *
+     * @throws IllegalStateException if the builder signs with another key type;
+     *                               use {@link #getSigningJwk()} instead
+     */
+    public ECKey getSigningKey() {
+        JWK key = getSigningJwk();
+        if (key == null || key instanceof ECKey) {
+            return (ECKey) key;
         }
+        throw new IllegalStateException("Signing key is a " + key.getKeyType() + " key, use getSigningJwk()");
+    }
 
-        // Create disclosures for object claims (each sub-field is a separate disclosure)
-        for (var entry : objectClaims.entrySet()) {
-            for (var field : entry.getValue().entrySet()) {
-                disclosures.add(new Disclosure(entry.getKey() + "." + field.getKey(), field.getValue()));
-            }
+    public JWK getSigningJwk() {
+        if (keyPolicy == SigningKeyPolicy.PER_ISSUER) {
+            return keyPool.keyForIssuer(issuer);
         }
+        return signingKey;
+    }
 
-        // Create disclosures for array claims (per-element)
-        for (var entry : arrayClaims.entrySet()) {
-            for (Object element : entry.getValue()) {
-                disclosures.add(new Disclosure(entry.getKey(), element));
-            }
+    public String build() {
+        JWK key = nextSigningKey();
+        if (fixtureCache != null) {
+            return fixtureCache.credential(cacheInputs(key), ttl, () -> compile(key).mint());
         }
+        return compile(key).mint();
+    }
 
-        // Build JWT claims
-        Instant now = Instant.now();
-        JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder()
-                .issueTime(Date.from(now))
-                .expirationTime(Date.from(now.plus(ttl)));
-
-        if (vct != null) {
-            claimsBuilder.claim("vct", vct);
-        }
-        if (issuer != null) {
-            claimsBuilder.issuer(issuer);
-        }
-        if (holderBindingKey != null) {
-            claimsBuilder.claim("cnf", Map.of("jwk", holderBindingKey.toPublicJWK().toJSONObject()));
+    /**
+     * Builds {@code count} credentials in parallel, in index order. Credential
+     * {@code i} gets the claims returned by {@code claims.apply(i)} on top of the
+     * ones configured here, overriding them by name. All credentials share one
+     * signing key unless the builder uses {@link SigningKeyPolicy#FRESH_PER_CREDENTIAL}.
+     */
+    public List<String> buildBatch(int count, IntFunction<Map<String, Object>> claims) {
+        if (keyPolicy == SigningKeyPolicy.FRESH_PER_CREDENTIAL) {
+            return IntStream.range(0, count)
+                    .parallel()
+                    .mapToObj(i -> compile(keyPool.take()).mint(claims.apply(i), saltSource.forCredential(i)))
+                    .toList();
         }
+        return toTemplate().mintBatch(count, claims);
+    }
 
-        // Add _sd digests for disclosures
-        List<String> sdDigests = new ArrayList<>();
-        for (Disclosure disclosure : disclosures) {
-            sdDigests.add(disclosure.digest());
-        }
-        if (!sdDigests.isEmpty()) {
-            claimsBuilder.claim("_sd", sdDigests);
-        }
+    /**
+     * Compiles the current configuration into an immutable template for
+     * high-rate minting. Later changes to this builder do not affect the template.
+     * The template signs with the key this builder would use for its next
+     * {@link #build()}.
+     */
+    public SdJwtCredentialTemplate toTemplate() {
+        return compile(nextSigningKey());
+    }
+
+    private SdJwtCredentialTemplate compile(JWK key) {
+        return new SdJwtCredentialTemplate(key, algorithm, vct, issuer, ttl, holderBindingKey,
+                flatClaims, objectClaims, arrayClaims, saltSource);
+    }
+
+    private Map<String, Object> cacheInputs(JWK key) {
+        Map<String, Object> inputs = new LinkedHashMap<>();
+        inputs.put("signing_key", thumbprint(key));
+        inputs.put("alg", algorithm != null ? algorithm.getName() : null);
+        inputs.put("holder_key", holderBindingKey != null ? thumbprint(holderBindingKey) : null);
+        inputs.put("vct", vct);
+        inputs.put("issuer", issuer);
+        inputs.put("ttl", ttl.toSeconds());
+        inputs.put("claims", flatClaims);
+        inputs.put("object_claims", objectClaims);
+        inputs.put("array_claims", arrayClaims);
+        return inputs;
+    }
 
-        // Sign the JWT
+    private static String thumbprint(JWK key) {
         try {
-            JWSHeader header = new JWSHeader.Builder(JWSAlgorithm.ES256)
-                    .keyID(signingKey.getKeyID())
-                    .build();
-            SignedJWT signedJWT = new SignedJWT(header, claimsBuilder.build());
-            signedJWT.sign(new ECDSASigner(signingKey));
-
-            // Assemble SD-JWT: jwt~disclosure1~disclosure2~...~
-            SDJWT sdJwt = new SDJWT(signedJWT.serialize(), disclosures);
-            return sdJwt.toString();
+            return key.computeThumbprint().toString();
         } catch (JOSEException e) {
-            throw new IllegalStateException("Failed to sign SD-JWT", e);
+            throw new IllegalStateException("Failed to compute key thumbprint", e);
         }
     }
+
+    private JWK nextSigningKey() {
+        return switch (keyPolicy) {
+            case FIXED -> signingKey;
+            case PER_ISSUER -> keyPool.keyForIssuer(issuer);
+            case FRESH_PER_CREDENTIAL -> signingKey = keyPool.take();
+        };
+    }
 }
@@ -0,0 +1,315 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Immutable, thread-safe form of an {@link SdJwtCredentialBuilder} for minting
+ * many credentials that share most of their content. The JWS header, the
+ * signer, the fixed registered claims and the JSON encoding of every claim
+ * name and value are prepared once; {@link #mint(Map)} only draws salts,
+ * hashes disclosures and signs.
+ *
+ * <p>Overrides passed to {@link #mint(Map)} replace top-level claims by name:
+ * a flat claim gets the new value, an object claim gets a new field map, an
+ * array claim gets a new element list, anything else for those is rejected.
+ * Names the builder did not define are added as flat claims.
+ */
+public final class SdJwtCredentialTemplate {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final JWK signingKey;
+    private final String vct;
+    private final String holderKeyId;
+    private final Map<String, Object> claimValues;
+    private final JWSHeader header;
+    private final JWSSigner signer;
+    private final JWTClaimsSet baseClaims;
+    private final Duration ttl;
+    private final SaltSource saltSource;
+    private final Map<String, String> flatSuffixes;
+    private final Map<String, List<String>> objectSuffixes;
+    private final Map<String, List<String>> arraySuffixes;
+    private final List<String> staticDisclosureSuffixes;
+
+    SdJwtCredentialTemplate(JWK signingKey, JWSAlgorithm algorithm, String vct, String issuer, Duration ttl,
+                            JWK holderBindingKey, Map<String, Object> flatClaims,
+                            Map<String, Map<String, Object>> objectClaims, Map<String, List<?>> arrayClaims,
+                            SaltSource saltSource) {
+        this.signingKey = signingKey;
+        this.saltSource = saltSource;
+        this.vct = vct;
+        this.holderKeyId = holderBindingKey != null ? keyId(holderBindingKey) : null;
+        this.ttl = ttl;
+        Map<String, Object> values = new LinkedHashMap<>(flatClaims);
+        values.putAll(objectClaims);
+        values.putAll(arrayClaims);
+        this.claimValues = Collections.unmodifiableMap(values);
+        this.flatSuffixes = new LinkedHashMap<>();
+        flatClaims.forEach((name, value) -> flatSuffixes.put(name, suffix(name, value)));
+        this.objectSuffixes = new LinkedHashMap<>();
+        objectClaims.forEach((name, fields) -> objectSuffixes.put(name, objectSuffixes(name, fields)));
+        this.arraySuffixes = new LinkedHashMap<>();
+        arrayClaims.forEach((name, elements) -> arraySuffixes.put(name, arraySuffixes(name, elements)));
+        this.header = new JWSHeader.Builder(algorithm != null ? algorithm : JwsSupport.algorithmFor(signingKey))
+                .keyID(signingKey.getKeyID())
+                .build();
+        this.signer = JwsSupport.signerFor(signingKey);
+
+        JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder();
+        if (vct != null) {
+            claimsBuilder.claim("vct", vct);
+        }
+        if (issuer != null) {
+            claimsBuilder.issuer(issuer);
+        }
+        if (holderBindingKey != null) {
+            claimsBuilder.claim("cnf", Map.of("jwk", holderBindingKey.toPublicJWK().toJSONObject()));
+        }
+        this.baseClaims = claimsBuilder.build();
+        this.staticDisclosureSuffixes = disclosureSuffixes(Map.of());
+    }
+
+    /**
+     * Returns the signing key if it is an EC key.
+     *
+     * @throws IllegalStateException if the template signs with another key type;
+     *                               use {@link #getSigningJwk()} instead
+     */
+    public ECKey getSigningKey() {
+        if (signingKey instanceof ECKey ecKey) {
+            return ecKey;
+        }
+        throw new IllegalStateException("Signing key is a " + signingKey.getKeyType() + " key, use getSigningJwk()");
+    }
+
+    public JWK getSigningJwk() {
+        return signingKey;
+    }
+
+    public JWSAlgorithm getAlgorithm() {
+        return header.getAlgorithm();
+    }
+
+    String getVct() {
+        return vct;
+    }
+
+    String getHolderKeyId() {
+        return holderKeyId;
+    }
+
+    /**
+     * Returns the top-level claim values a credential minted with
+     * {@code overrides} carries, as they would be disclosed.
+     */
+    Map<String, Object> claimValues(Map<String, Object> overrides) {
+        if (overrides.isEmpty()) {
+            return claimValues;
+        }
+        Map<String, Object> merged = new LinkedHashMap<>(claimValues);
+        merged.putAll(overrides);
+        return merged;
+    }
+
+    public String mint() {
+        return mint(Map.of());
+    }
+
+    public String mint(Map<String, Object> overrides) {
+        return mint(overrides, saltSource);
+    }
+
+    String mint(Map<String, Object> overrides, SaltSource salts) {
+        List<String> suffixes = overrides.isEmpty() ? staticDisclosureSuffixes : disclosureSuffixes(overrides);
+
+        StringBuilder disclosurePart = new StringBuilder();
+        List<String> sdDigests = new ArrayList<>(suffixes.size());
+        MessageDigest sha256 = sha256();
+        for (String suffix : suffixes) {
+            String disclosure = BASE64URL.encodeToString(
+                    ("[\"" + salts.nextSalt() + "\"," + suffix).getBytes(StandardCharsets.UTF_8));
+            sdDigests.add(BASE64URL.encodeToString(sha256.digest(disclosure.getBytes(StandardCharsets.US_ASCII))));
+            disclosurePart.append(disclosure).append('~');
+        }
+
+        Instant now = Instant.now();
+        JWTClaimsSet.Builder claimsBuilder = new JWTClaimsSet.Builder(baseClaims)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(ttl)));
+        if (!sdDigests.isEmpty()) {
+            claimsBuilder.claim("_sd", sdDigests);
+        }
+
+        try {
+            SignedJWT signedJWT = new SignedJWT(header, claimsBuilder.build());
+            signedJWT.sign(signer);
+            // Assemble SD-JWT: jwt~disclosure1~disclosure2~...~
+            return signedJWT.serialize() + "~" + disclosurePart;
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign SD-JWT", e);
+        }
+    }
+
+    /**
+     * Mints {@code count} credentials in parallel on the common fork-join pool.
+     * Credential {@code i} gets the overrides returned by {@code claims.apply(i)}
+     * and sits at index {@code i} of the result, whatever order the workers ran in.
+     * Its salts come from {@link SaltSource#forCredential(long) forCredential(i)}.
+     */
+    public List<String> mintBatch(int count, IntFunction<Map<String, Object>> claims) {
+        return mintStream(count, claims).toList();
+    }
+
+    /**
+     * Like {@link #mintBatch(int, IntFunction)}, but runs on {@code pool}, e.g. to
+     * keep fixture generation off the common pool.
+     */
+    public List<String> mintBatch(int count, IntFunction<Map<String, Object>> claims, ForkJoinPool pool) {
+        return pool.submit(() -> mintBatch(count, claims)).join();
+    }
+
+    /**
+     * Returns an ordered parallel stream of {@code count} credentials. Nothing is
+     * minted until a terminal operation runs, but the stream is not lazy per
+     * element: parallel terminal operations such as {@code forEachOrdered} mint
+     * ahead of the consumer and buffer out-of-order results, up to the whole
+     * batch. Call {@code sequential()} on it to mint one credential per element
+     * consumed.
+     */
+    public Stream<String> mintStream(int count, IntFunction<Map<String, Object>> claims) {
+        return IntStream.range(0, count)
+                .parallel()
+                .mapToObj(i -> mint(claims.apply(i), saltSource.forCredential(i)));
+    }
+
+    // Everything of a disclosure after the salt is precomputed: `"name",value]`.
+    // Only overridden claims are encoded again.
+    private List<String> disclosureSuffixes(Map<String, Object> overrides) {
+        List<String> suffixes = new ArrayList<>();
+
+        // Flat claims, including names that only appear in the overrides
+        for (var entry : flatSuffixes.entrySet()) {
+            String name = entry.getKey();
+            suffixes.add(overrides.containsKey(name) ? suffix(name, overrides.get(name)) : entry.getValue());
+        }
+        for (var entry : overrides.entrySet()) {
+            String name = entry.getKey();
+            if (!flatSuffixes.containsKey(name) && !objectSuffixes.containsKey(name) && !arraySuffixes.containsKey(name)) {
+                suffixes.add(suffix(name, entry.getValue()));
+            }
+        }
+
+        // Object claims (each sub-field is a separate disclosure)
+        for (var entry : objectSuffixes.entrySet()) {
+            Object override = overrides.get(entry.getKey());
+            if (override == null) {
+                suffixes.addAll(entry.getValue());
+            } else if (override instanceof Map<?, ?> fields) {
+                suffixes.addAll(objectSuffixes(entry.getKey(), fields));
+            } else {
+                throw new IllegalArgumentException("Override for object claim '" + entry.getKey()
+                        + "' must be a Map: " + override);
+            }
+        }
+
+        // Array claims (per-element)
+        for (var entry : arraySuffixes.entrySet()) {
+            Object override = overrides.get(entry.getKey());
+            if (override == null) {
+                suffixes.addAll(entry.getValue());
+            } else if (override instanceof List<?> elements) {
+                suffixes.addAll(arraySuffixes(entry.getKey(), elements));
+            } else {
+                throw new IllegalArgumentException("Override for array claim '" + entry.getKey()
+                        + "' must be a List: " + override);
+            }
+        }
+        return List.copyOf(suffixes);
+    }
+
+    private static List<String> objectSuffixes(String name, Map<?, ?> fields) {
+        List<String> suffixes = new ArrayList<>(fields.size());
+        for (var field : fields.entrySet()) {
+            suffixes.add(suffix(name + "." + field.getKey(), field.getValue()));
+        }
+        return suffixes;
+    }
+
+    private static List<String> arraySuffixes(String name, List<?> elements) {
+        List<String> suffixes = new ArrayList<>(elements.size());
+        for (Object element : elements) {
+            suffixes.add(suffix(name, element));
+        }
+        return suffixes;
+    }
+
+    private static String suffix(String name, Object value) {
+        try {
+            return MAPPER.writeValueAsString(name) + "," + MAPPER.writeValueAsString(value) + "]";
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Claim value of '" + name + "' is not JSON-serializable", e);
+        }
+    }
+
+    private static String keyId(JWK key) {
+        if (key.getKeyID() != null) {
+            return key.getKeyID();
+        }
+        try {
+            return key.computeThumbprint().toString();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to compute holder key thumbprint", e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Reads fixture files written by {@link SdJwtFixtureWriter} line by line, so
+ * files far larger than the heap can be replayed.
+ */
+public final class SdJwtFixtureReader {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SdJwtFixtureReader() {
+    }
+
+    /**
+     * Returns a lazily populated stream of the fixtures in {@code file}. The
+     * stream holds the file open and must be closed, e.g. with try-with-resources.
+     */
+    public static Stream<SdJwtFixture> read(Path file) {
+        try {
+            return Files.lines(file, StandardCharsets.UTF_8)
+                    .filter(line -> !line.isBlank())
+                    .map(SdJwtFixtureReader::parse);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read fixtures from " + file, e);
+        }
+    }
+
+    /**
+     * Imports every credential in {@code file} into the wallet, reading one line
+     * at a time.
+     *
+     * @return the number of imported credentials
+     */
+    public static long importInto(Path file, WalletClient client) {
+        AtomicLong imported = new AtomicLong();
+        try (Stream<SdJwtFixture> fixtures = read(file)) {
+            fixtures.forEach(fixture -> {
+                client.importCredential(fixture.credential());
+                imported.incrementAndGet();
+            });
+        }
+        return imported.get();
+    }
+
+    private static SdJwtFixture parse(String line) {
+        try {
+            return MAPPER.readValue(line, SdJwtFixture.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed fixture line: " + line, e);
+        }
+    }
+}
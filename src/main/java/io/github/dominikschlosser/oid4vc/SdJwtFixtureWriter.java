@@ -0,0 +1,170 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongFunction;
+
+/**
+ * Mints SD-JWTs from a template on several worker threads and streams them,
+ * one {@link SdJwtFixture} JSON object per line, into a file. Workers hand
+ * finished lines to the writer through a bounded queue and block when it is
+ * full, so memory stays flat however many credentials are written. Lines are
+ * in completion order; each carries its index.
+ */
+public class SdJwtFixtureWriter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final SdJwtCredentialTemplate template;
+    private int workers = Runtime.getRuntime().availableProcessors();
+    private int queueCapacity = 1024;
+    private int bufferSize = 1 << 20;
+
+    public SdJwtFixtureWriter(SdJwtCredentialTemplate template) {
+        this.template = template;
+    }
+
+    public SdJwtFixtureWriter workers(int workers) {
+        this.workers = workers;
+        return this;
+    }
+
+    /**
+     * Number of finished lines that may wait for the writer before workers block.
+     */
+    public SdJwtFixtureWriter queueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    public SdJwtFixtureWriter bufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+        return this;
+    }
+
+    public long write(Path file, long count) {
+        return write(file, count, index -> Map.of());
+    }
+
+    /**
+     * Writes {@code count} credentials to {@code file}, replacing its content.
+     * Credential {@code i} is minted with the overrides {@code claims.apply(i)}.
+     *
+     * @return the number of lines written
+     */
+    public long write(Path file, long count, LongFunction<Map<String, Object>> claims) {
+        BlockingQueue<byte[]> lines = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicLong next = new AtomicLong();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        for (int i = 0; i < workers; i++) {
+            executor.execute(() -> {
+                try {
+                    long index;
+                    while ((index = next.getAndIncrement()) < count && failure.get() == null) {
+                        lines.put(line(index, claims.apply(index)));
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        executor.shutdown();
+
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(bufferSize);
+            while (true) {
+                byte[] line = lines.poll(50, TimeUnit.MILLISECONDS);
+                if (line == null) {
+                    if (executor.isTerminated() && lines.isEmpty()) {
+                        break;
+                    }
+                    continue;
+                }
+                if (line.length > buffer.remaining()) {
+                    drain(channel, buffer);
+                }
+                if (line.length > buffer.capacity()) {
+                    writeFully(channel, ByteBuffer.wrap(line));
+                } else {
+                    buffer.put(line);
+                }
+                written++;
+            }
+            drain(channel, buffer);
+        } catch (IOException e) {
+            executor.shutdownNow();
+            throw new UncheckedIOException("Failed to write fixtures to " + file, e);
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing fixtures to " + file, e);
+        }
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return written;
+    }
+
+    private byte[] line(long index, Map<String, Object> overrides) {
+        SdJwtFixture fixture = new SdJwtFixture(index, template.getVct(), template.getHolderKeyId(),
+                template.claimValues(overrides), template.mint(overrides));
+        try {
+            byte[] json = MAPPER.writeValueAsBytes(fixture);
+            byte[] line = new byte[json.length + 1];
+            System.arraycopy(json, 0, line, 0, json.length);
+            line[json.length] = '\n';
+            return line;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize fixture " + index, e);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(channel, buffer);
+        buffer.clear();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Creates SD-JWT presentations in-process, for verifier tests that do not need
+ * a wallet. A presentation keeps the issuer-signed JWT, the selected
+ * disclosures and a key-binding JWT ({@code typ: kb+jwt}) carrying
+ * {@code iat}, {@code aud}, {@code nonce} and {@code sd_hash}, signed with
+ * the holder key the credential was bound to via
+ * {@link SdJwtCredentialBuilder#holderBindingKey(com.nimbusds.jose.jwk.JWK)}.
+ *
+ * <p>The KB-JWT header and signer are prepared once, so a presenter is cheap to
+ * call from many threads.
+ */
+public class SdJwtPresenter {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64URL_DECODER = Base64.getUrlDecoder();
+
+    private final JWSHeader header;
+    private final JWSSigner signer;
+
+    /**
+     * @param holderKey the private holder key; its public part must be the
+     *                  credential's {@code cnf.jwk}
+     */
+    public SdJwtPresenter(JWK holderKey) {
+        this(holderKey, JwsSupport.algorithmFor(holderKey));
+    }
+
+    public SdJwtPresenter(JWK holderKey, JWSAlgorithm algorithm) {
+        if (!holderKey.isPrivate()) {
+            throw new IllegalArgumentException("Holder key must contain the private key");
+        }
+        this.header = new JWSHeader.Builder(algorithm)
+                .type(new JOSEObjectType("kb+jwt"))
+                .build();
+        this.signer = JwsSupport.signerFor(holderKey);
+    }
+
+    /**
+     * Presents {@code sdJwt} with every disclosure.
+     */
+    public String presentAll(String sdJwt, String nonce, String audience) {
+        return present(sdJwt, name -> true, nonce, audience);
+    }
+
+    /**
+     * Presents {@code sdJwt} disclosing only {@code claimNames}. Names are matched
+     * as the builder discloses them: a flat or array claim by its name (all
+     * elements of an array), an object field as {@code object.field}.
+     */
+    public String present(String sdJwt, Collection<String> claimNames, String nonce, String audience) {
+        Set<String> names = Set.copyOf(claimNames);
+        return present(sdJwt, name -> name != null && names.contains(name), nonce, audience);
+    }
+
+    /**
+     * Presents {@code sdJwt} with the disclosures whose claim name passes
+     * {@code disclose}. Array element disclosures have no name and are tested
+     * with {@code null}.
+     */
+    public String present(String sdJwt, Predicate<String> disclose, String nonce, String audience) {
+        String[] parts = sdJwt.split("~");
+        StringBuilder presentation = new StringBuilder(sdJwt.length() + 512).append(parts[0]).append('~');
+        for (int i = 1; i < parts.length; i++) {
+            if (!parts[i].isEmpty() && disclose.test(claimName(parts[i]))) {
+                presentation.append(parts[i]).append('~');
+            }
+        }
+
+        String sdHash = BASE64URL.encodeToString(
+                sha256().digest(presentation.toString().getBytes(StandardCharsets.US_ASCII)));
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issueTime(new Date())
+                .audience(audience)
+                .claim("nonce", nonce)
+                .claim("sd_hash", sdHash)
+                .build();
+        try {
+            SignedJWT keyBindingJwt = new SignedJWT(header, claims);
+            keyBindingJwt.sign(signer);
+            return presentation.append(keyBindingJwt.serialize()).toString();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to sign key-binding JWT", e);
+        }
+    }
+
+    // A disclosure is base64url(["salt", "name", value])
+    private static String claimName(String disclosure) {
+        try {
+            JsonNode array = MAPPER.readTree(BASE64URL_DECODER.decode(disclosure));
+            return array.size() == 3 ? array.get(1).asText() : null;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed disclosure: " + disclosure, e);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Parses and verifies SD-JWTs in compact form against a fixed set of trusted
+ * issuer keys.
+ *
+ * <p>{@link #verify(String)} checks the issuer signature, {@code exp}, that
+ * every disclosure matches exactly one {@code _sd} or array digest, and, if
+ * present, the key-binding JWT's signature against {@code cnf.jwk} and its
+ * {@code sd_hash}. A JWS verifier is created once per trusted key, so a single
+ * instance can verify large batches from many threads.
+ *
+ * <p>Disclosures that repeat a claim name, as produced by
+ * {@link SdJwtCredentialBuilder#arrayClaim(String, List)}, are collected into a
+ * list.
+ */
+public class SdJwtVerifier {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64URL_DECODER = Base64.getUrlDecoder();
+
+    private final Map<String, JWSVerifier> verifiersByKeyId = new HashMap<>();
+    private final List<JWSVerifier> verifiers = new ArrayList<>();
+
+    public SdJwtVerifier(JWKSet trustedKeys) {
+        for (JWK key : trustedKeys.getKeys()) {
+            JWSVerifier verifier = JwsSupport.verifierFor(key);
+            if (key.getKeyID() != null) {
+                verifiersByKeyId.put(key.getKeyID(), verifier);
+            }
+            verifiers.add(verifier);
+        }
+    }
+
+    public SdJwtVerifier(JWK... trustedKeys) {
+        this(new JWKSet(List.of(trustedKeys)));
+    }
+
+    /**
+     * Creates a verifier from a JWK set document, e.g. an issuer's {@code jwks_uri}
+     * response.
+     */
+    public static SdJwtVerifier fromJwkSet(String json) {
+        try {
+            return new SdJwtVerifier(JWKSet.parse(json));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid JWK set", e);
+        }
+    }
+
+    /**
+     * Creates a verifier that trusts the issuer keys of a wallet trust list: a
+     * JWT whose {@code keys} claim holds the keys as JWKs, as served by
+     * {@link WalletClient#getTrustList()}. The trust list's own signature is not
+     * checked, so fetch it from a wallet you control.
+     */
+    public static SdJwtVerifier fromTrustList(String jwt) {
+        Map<String, Object> claims;
+        try {
+            claims = JWSObject.parse(jwt).getPayload().toJSONObject();
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid trust list JWT", e);
+        }
+        if (claims == null || !(claims.get("keys") instanceof List<?> keys)) {
+            throw new IllegalArgumentException("Trust list has no keys claim");
+        }
+        try {
+            return new SdJwtVerifier(JWKSet.parse(Map.of("keys", keys)));
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid key in trust list", e);
+        }
+    }
+
+    /**
+     * Fetches the trust list of {@code client}'s wallet and creates a verifier
+     * for its issuer keys.
+     */
+    public static SdJwtVerifier fromTrustList(WalletClient client) {
+        return fromTrustList(client.getTrustList());
+    }
+
+    /**
+     * Verifies {@code sdJwt} and returns its claims with all disclosures applied.
+     *
+     * @throws SdJwtVerificationException if any check fails
+     */
+    public VerifiedSdJwt verify(String sdJwt) {
+        int lastSeparator = sdJwt.lastIndexOf('~');
+        if (lastSeparator < 0) {
+            throw new SdJwtVerificationException("Not an SD-JWT: no '~' separator");
+        }
+        String[] parts = sdJwt.substring(0, lastSeparator).split("~", -1);
+        String keyBindingJwt = sdJwt.substring(lastSeparator + 1);
+
+        JWSObject issuerJwt = parse(parts[0], "issuer-signed JWT");
+        verifyIssuerSignature(issuerJwt);
+        Map<String, Object> payload = issuerJwt.getPayload().toJSONObject();
+        checkNotExpired(payload);
+        Map<String, Object> claims = disclose(payload, parts);
+
+        Map<String, Object> keyBinding = keyBindingJwt.isEmpty()
+                ? null
+                : verifyKeyBinding(keyBindingJwt, sdJwt.substring(0, lastSeparator + 1), payload);
+        return new VerifiedSdJwt(claims, parts.length - 1, keyBinding);
+    }
+
+    /**
+     * Returns the claims of {@code sdJwt} with its disclosures applied, checking
+     * the digests but neither signature nor expiry, e.g. to display a credential.
+     */
+    static Map<String, Object> decodeClaims(String sdJwt) {
+        int lastSeparator = sdJwt.lastIndexOf('~');
+        String[] parts = (lastSeparator < 0 ? sdJwt : sdJwt.substring(0, lastSeparator)).split("~", -1);
+        return disclose(parse(parts[0], "issuer-signed JWT").getPayload().toJSONObject(), parts);
+    }
+
+    private static Map<String, Object> disclose(Map<String, Object> payload, String[] parts) {
+        Object sdAlg = payload.get("_sd_alg");
+        if (sdAlg != null && !"sha-256".equals(sdAlg)) {
+            throw new SdJwtVerificationException("Unsupported _sd_alg: " + sdAlg);
+        }
+
+        MessageDigest sha256 = sha256();
+        Map<String, Disclosure> disclosures = new HashMap<>();
+        for (int i = 1; i < parts.length; i++) {
+            String digest = digest(sha256, parts[i]);
+            if (disclosures.put(digest, decode(parts[i])) != null) {
+                throw new SdJwtVerificationException("Duplicate disclosure: " + parts[i]);
+            }
+        }
+
+        Set<String> referenced = new HashSet<>();
+        @SuppressWarnings("unchecked")
+        Map<String, Object> claims = (Map<String, Object>) resolve(payload, disclosures, referenced);
+        if (referenced.size() != disclosures.size()) {
+            throw new SdJwtVerificationException((disclosures.size() - referenced.size())
+                    + " disclosure(s) not referenced by any digest");
+        }
+        claims.remove("_sd_alg");
+        return claims;
+    }
+
+    /**
+     * Verifies {@code sdJwts} in parallel on the common fork-join pool. Results
+     * are in input order.
+     *
+     * @throws SdJwtVerificationException for the first failing SD-JWT, naming its index
+     */
+    public List<VerifiedSdJwt> verifyAll(List<String> sdJwts) {
+        return IntStream.range(0, sdJwts.size())
+                .parallel()
+                .mapToObj(i -> {
+                    try {
+                        return verify(sdJwts.get(i));
+                    } catch (SdJwtVerificationException e) {
+                        throw new SdJwtVerificationException("SD-JWT " + i + ": " + e.getMessage(), e);
+                    }
+                })
+                .toList();
+    }
+
+    /**
+     * Like {@link #verifyAll(List)}, but runs on {@code pool}.
+     */
+    public List<VerifiedSdJwt> verifyAll(List<String> sdJwts, ForkJoinPool pool) {
+        return pool.submit(() -> verifyAll(sdJwts)).join();
+    }
+
+    private void verifyIssuerSignature(JWSObject jwt) {
+        JWSHeader header = jwt.getHeader();
+        List<JWSVerifier> candidates;
+        if (header.getKeyID() != null) {
+            JWSVerifier verifier = verifiersByKeyId.get(header.getKeyID());
+            if (verifier == null) {
+                throw new SdJwtVerificationException("No trusted key with kid " + header.getKeyID());
+            }
+            candidates = List.of(verifier);
+        } else {
+            candidates = verifiers;
+        }
+        for (JWSVerifier verifier : candidates) {
+            if (verifier.supportedJWSAlgorithms().contains(header.getAlgorithm()) && verifies(jwt, verifier)) {
+                return;
+            }
+        }
+        throw new SdJwtVerificationException("Issuer signature does not match any trusted key");
+    }
+
+    private static Map<String, Object> verifyKeyBinding(String compact, String presented,
+                                                        Map<String, Object> issuerPayload) {
+        JWSObject keyBindingJwt = parse(compact, "key-binding JWT");
+        if (keyBindingJwt.getHeader().getType() == null
+                || !"kb+jwt".equals(keyBindingJwt.getHeader().getType().getType())) {
+            throw new SdJwtVerificationException("Key-binding JWT must have typ kb+jwt");
+        }
+        if (!(issuerPayload.get("cnf") instanceof Map<?, ?> cnf) || !(cnf.get("jwk") instanceof Map<?, ?> jwk)) {
+            throw new SdJwtVerificationException("Key-binding JWT present, but credential has no cnf.jwk");
+        }
+        JWSVerifier verifier;
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> jwkObject = (Map<String, Object>) jwk;
+            verifier = JwsSupport.verifierFor(JWK.parse(jwkObject));
+        } catch (ParseException | IllegalArgumentException e) {
+            throw new SdJwtVerificationException("Unusable cnf.jwk", e);
+        }
+        if (!verifies(keyBindingJwt, verifier)) {
+            throw new SdJwtVerificationException("Key-binding JWT signature does not match cnf.jwk");
+        }
+
+        Map<String, Object> claims = keyBindingJwt.getPayload().toJSONObject();
+        String expectedHash = digest(sha256(), presented);
+        if (!expectedHash.equals(claims.get("sd_hash"))) {
+            throw new SdJwtVerificationException("Key-binding JWT sd_hash does not match the presentation");
+        }
+        return claims;
+    }
+
+    // Puts disclosures back in place of their digests, depth first
+    private static Object resolve(Object node, Map<String, Disclosure> disclosures, Set<String> referenced) {
+        if (node instanceof Map<?, ?> object) {
+            Map<String, Object> resolved = new LinkedHashMap<>();
+            for (var entry : object.entrySet()) {
+                if (!"_sd".equals(entry.getKey())) {
+                    resolved.put((String) entry.getKey(), resolve(entry.getValue(), disclosures, referenced));
+                }
+            }
+            if (object.get("_sd") instanceof List<?> digests) {
+                Set<String> disclosedNames = new HashSet<>();
+                Set<String> repeatedNames = new HashSet<>();
+                for (Object digest : digests) {
+                    Disclosure disclosure = claim(digest, disclosures, referenced);
+                    if (disclosure == null) {
+                        continue;
+                    }
+                    if (disclosure.name() == null) {
+                        throw new SdJwtVerificationException("Array element disclosure referenced from _sd");
+                    }
+                    String name = disclosure.name();
+                    Object value = resolve(disclosure.value(), disclosures, referenced);
+                    if (disclosedNames.add(name)) {
+                        if (resolved.putIfAbsent(name, value) != null) {
+                            throw new SdJwtVerificationException("Disclosed claim overwrites existing claim " + name);
+                        }
+                    } else {
+                        repeat(resolved, repeatedNames, name, value);
+                    }
+                }
+            }
+            return resolved;
+        }
+        if (node instanceof List<?> array) {
+            List<Object> resolved = new ArrayList<>(array.size());
+            for (Object element : array) {
+                if (element instanceof Map<?, ?> object && object.size() == 1 && object.containsKey("...")) {
+                    Disclosure disclosure = claim(object.get("..."), disclosures, referenced);
+                    if (disclosure == null) {
+                        continue;
+                    }
+                    if (disclosure.name() != null) {
+                        throw new SdJwtVerificationException("Object property disclosure referenced from array");
+                    }
+                    resolved.add(resolve(disclosure.value(), disclosures, referenced));
+                } else {
+                    resolved.add(resolve(element, disclosures, referenced));
+                }
+            }
+            return resolved;
+        }
+        return node;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void repeat(Map<String, Object> resolved, Set<String> repeatedNames, String name, Object value) {
+        if (repeatedNames.add(name)) {
+            List<Object> values = new ArrayList<>();
+            values.add(resolved.get(name));
+            resolved.put(name, values);
+        }
+        ((List<Object>) resolved.get(name)).add(value);
+    }
+
+    // Returns null for digests without disclosure: undisclosed claims and decoys
+    private static Disclosure claim(Object digest, Map<String, Disclosure> disclosures, Set<String> referenced) {
+        Disclosure disclosure = disclosures.get(String.valueOf(digest));
+        if (disclosure != null && !referenced.add((String) digest)) {
+            throw new SdJwtVerificationException("Digest referenced more than once: " + digest);
+        }
+        return disclosure;
+    }
+
+    private static Disclosure decode(String disclosure) {
+        List<?> array;
+        try {
+            array = MAPPER.readValue(BASE64URL_DECODER.decode(disclosure), List.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SdJwtVerificationException("Malformed disclosure: " + disclosure, e);
+        }
+        return switch (array.size()) {
+            case 3 -> new Disclosure((String) array.get(1), array.get(2));
+            case 2 -> new Disclosure(null, array.get(1));
+            default -> throw new SdJwtVerificationException("Disclosure must have 2 or 3 elements: " + disclosure);
+        };
+    }
+
+    private static void checkNotExpired(Map<String, Object> payload) {
+        if (payload.get("exp") instanceof Number exp && exp.longValue() <= Instant.now().getEpochSecond()) {
+            throw new SdJwtVerificationException("SD-JWT expired at " + Instant.ofEpochSecond(exp.longValue()));
+        }
+    }
+
+    private static JWSObject parse(String compact, String what) {
+        try {
+            return JWSObject.parse(compact);
+        } catch (ParseException e) {
+            throw new SdJwtVerificationException("Malformed " + what, e);
+        }
+    }
+
+    private static boolean verifies(JWSObject jwt, JWSVerifier verifier) {
+        try {
+            return jwt.verify(verifier);
+        } catch (JOSEException e) {
+            return false;
+        }
+    }
+
+    private static String digest(MessageDigest sha256, String value) {
+        return BASE64URL.encodeToString(sha256.digest(value.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Disclosure(String name, Object value) {
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The source behind {@link SaltSource#seeded(long)}: SplitMix64 output for a
+ * seed and a counter. Each batch index gets its own seed derived from the
+ * parent seed, so batch credentials do not depend on worker scheduling.
+ */
+final class SeededSaltSource implements SaltSource {
+
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private final AtomicLong counter = new AtomicLong();
+
+    SeededSaltSource(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public String nextSalt() {
+        long n = counter.getAndIncrement();
+        return BASE64URL.encodeToString(ByteBuffer.allocate(SALT_LENGTH)
+                .putLong(mix(seed + (2 * n + 1) * GOLDEN_GAMMA))
+                .putLong(mix(seed + (2 * n + 2) * GOLDEN_GAMMA))
+                .array());
+    }
+
+    @Override
+    public SaltSource forCredential(long index) {
+        return new SeededSaltSource(mix(seed ^ mix(index + GOLDEN_GAMMA)));
+    }
+
+    // SplitMix64 finalizer
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
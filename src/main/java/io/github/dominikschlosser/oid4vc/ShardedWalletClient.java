@@ -0,0 +1,225 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Spreads wallet operations across several wallets while keeping every holder
+ * on the same one, so the credentials a holder was issued are where its
+ * presentations go.
+ *
+ * <p>Holders are assigned with rendezvous hashing over the healthy wallets.
+ * A wallet that fails at the transport level (no HTTP response) is taken out of
+ * rotation; only the holders assigned to it move, everyone else stays put.
+ * Credentials do not move along with a holder, so tests that survive a
+ * failover have to re-issue or re-import them. {@link #checkHealth()} puts
+ * recovered wallets back, and their holders return to them.
+ */
+public class ShardedWalletClient {
+
+    private final List<Shard> shards;
+
+    public ShardedWalletClient(Oid4vcContainer... wallets) {
+        this(Arrays.stream(wallets).map(Oid4vcContainer::client).toList());
+    }
+
+    public ShardedWalletClient(List<WalletClient> clients) {
+        if (clients.isEmpty()) {
+            throw new IllegalArgumentException("At least one wallet client is required");
+        }
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < clients.size(); i++) {
+            shards.add(new Shard(i, clients.get(i)));
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    public int shardFor(String holderId) {
+        return route(holderId).index;
+    }
+
+    public WalletClient clientFor(String holderId) {
+        return route(holderId).client;
+    }
+
+    /**
+     * Runs {@code operation} on the holder's wallet and records it in that
+     * wallet's metrics.
+     */
+    public <T> T execute(String holderId, Function<WalletClient, T> operation) {
+        Shard shard = route(holderId);
+        long start = System.nanoTime();
+        try {
+            return operation.apply(shard.client);
+        } catch (RuntimeException e) {
+            shard.errors.increment();
+            if (isTransportFailure(e)) {
+                shard.healthy = false;
+            }
+            throw e;
+        } finally {
+            shard.latencies.record(System.nanoTime() - start);
+            shard.operations.increment();
+        }
+    }
+
+    public PresentationResponse acceptPresentationRequest(String holderId, String uri) {
+        return execute(holderId, client -> client.acceptPresentationRequest(uri));
+    }
+
+    public OfferResponse acceptCredentialOffer(String holderId, String uri) {
+        return execute(holderId, client -> client.acceptCredentialOffer(uri));
+    }
+
+    public void importCredential(String holderId, String rawCredential) {
+        execute(holderId, client -> {
+            client.importCredential(rawCredential);
+            return null;
+        });
+    }
+
+    public List<Credential> getCredentials(String holderId) {
+        return execute(holderId, WalletClient::getCredentials);
+    }
+
+    /**
+     * Returns the clients of all wallets currently in rotation, e.g. for the
+     * load drivers when holder affinity does not matter.
+     */
+    public List<WalletClient> clients() {
+        return shards.stream().filter(shard -> shard.healthy).map(shard -> shard.client).toList();
+    }
+
+    public void markUnhealthy(int shard) {
+        shards.get(shard).healthy = false;
+    }
+
+    public void markHealthy(int shard) {
+        shards.get(shard).healthy = true;
+    }
+
+    /**
+     * Probes every wallet that is out of rotation and brings back the ones that
+     * answer again.
+     */
+    public void checkHealth() {
+        for (Shard shard : shards) {
+            if (!shard.healthy) {
+                try {
+                    shard.client.getTrustList();
+                    shard.healthy = true;
+                } catch (WalletClientException e) {
+                    // still down
+                }
+            }
+        }
+    }
+
+    // JSON parse and serialization failures have no status code either, but
+    // say nothing about whether the wallet is reachable
+    private static boolean isTransportFailure(RuntimeException e) {
+        return e instanceof WalletClientException
+                && e.getCause() instanceof IOException
+                && !(e.getCause() instanceof JsonProcessingException);
+    }
+
+    public List<ShardStats> shardStats() {
+        return shards.stream()
+                .map(shard -> new ShardStats(shard.index, shard.healthy, shard.operations.sum(),
+                        shard.errors.sum(), shard.latencies))
+                .toList();
+    }
+
+    /**
+     * Sums the metrics of all wallets. The returned stats use shard index
+     * {@code -1} and report healthy as long as one wallet is in rotation.
+     */
+    public ShardStats aggregateStats() {
+        LatencyHistogram latencies = new LatencyHistogram();
+        long operations = 0;
+        long errors = 0;
+        boolean anyHealthy = false;
+        for (Shard shard : shards) {
+            latencies.add(shard.latencies);
+            operations += shard.operations.sum();
+            errors += shard.errors.sum();
+            anyHealthy |= shard.healthy;
+        }
+        return new ShardStats(-1, anyHealthy, operations, errors, latencies);
+    }
+
+    private Shard route(String holderId) {
+        long holderHash = hash(holderId);
+        Shard best = null;
+        long bestScore = 0;
+        for (Shard shard : shards) {
+            if (!shard.healthy) {
+                continue;
+            }
+            long score = mix(holderHash ^ mix(shard.index + 1L));
+            if (best == null || Long.compareUnsigned(score, bestScore) > 0) {
+                best = shard;
+                bestScore = score;
+            }
+        }
+        if (best == null) {
+            throw new WalletClientException("No healthy wallet available for holder " + holderId);
+        }
+        return best;
+    }
+
+    // FNV-1a over the UTF-8 bytes; String.hashCode clusters too much for short IDs
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    public record ShardStats(int shard, boolean healthy, long operations, long errors, LatencyHistogram latencies) {
+    }
+
+    private static final class Shard {
+        private final int index;
+        private final WalletClient client;
+        private final LongAdder operations = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LatencyHistogram latencies = new LatencyHistogram();
+        private volatile boolean healthy = true;
+
+        private Shard(int index, WalletClient client) {
+            this.index = index;
+            this.client = client;
+        }
+    }
+}
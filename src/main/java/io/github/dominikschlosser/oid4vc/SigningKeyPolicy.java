@@ -0,0 +1,29 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+/**
+ * How an {@link SdJwtCredentialBuilder} backed by a {@link SigningKeyPool}
+ * picks its signing key.
+ */
+public enum SigningKeyPolicy {
+    /** Every {@code build()} is signed with a new key from the pool. */
+    FRESH_PER_CREDENTIAL,
+    /** All credentials with the same issuer share one key, across builders using the same pool. */
+    PER_ISSUER,
+    /** The builder takes one key from the pool and signs everything with it. */
+    FIXED
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of P-256 signing keys that is kept topped up by a background thread.
+ * {@link #take()} never blocks: when the pool has run dry the key is generated
+ * on the calling thread and the miss is counted in {@link Stats#exhausted()}.
+ * A steadily growing exhaustion count means the pool is too small for the
+ * consumption rate.
+ */
+public class SigningKeyPool implements AutoCloseable {
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private static volatile SigningKeyPool shared;
+
+    private final BlockingQueue<ECKey> available;
+    private final Map<String, ECKey> issuerKeys = new ConcurrentHashMap<>();
+    private final LongAdder generated = new LongAdder();
+    private final LongAdder served = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+    private final Thread generator;
+
+    public SigningKeyPool() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public SigningKeyPool(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1: " + capacity);
+        }
+        this.available = new ArrayBlockingQueue<>(capacity);
+        this.generator = Thread.ofPlatform()
+                .name("oid4vc-signing-key-pool")
+                .daemon(true)
+                .start(this::fill);
+    }
+
+    /**
+     * Returns a JVM-wide pool with the default capacity, started on first use.
+     */
+    public static SigningKeyPool shared() {
+        SigningKeyPool pool = shared;
+        if (pool == null) {
+            synchronized (SigningKeyPool.class) {
+                pool = shared;
+                if (pool == null) {
+                    pool = new SigningKeyPool();
+                    shared = pool;
+                }
+            }
+        }
+        return pool;
+    }
+
+    public ECKey take() {
+        ECKey key = available.poll();
+        if (key == null) {
+            exhausted.increment();
+            key = generate();
+        }
+        served.increment();
+        return key;
+    }
+
+    /**
+     * Returns the key assigned to {@code issuer}, taking a new one from the pool
+     * the first time an issuer is seen.
+     */
+    public ECKey keyForIssuer(String issuer) {
+        return issuerKeys.computeIfAbsent(issuer != null ? issuer : "", i -> take());
+    }
+
+    public Stats stats() {
+        return new Stats(generated.sum(), served.sum(), exhausted.sum(), available.size());
+    }
+
+    @Override
+    public void close() {
+        generator.interrupt();
+    }
+
+    private void fill() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                available.put(generate());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ECKey generate() {
+        try {
+            ECKey key = new ECKeyGenerator(Curve.P_256).generate();
+            generated.increment();
+            return key;
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Failed to generate EC key", e);
+        }
+    }
+
+    /**
+     * @param generated keys generated so far, by the background thread or inline
+     * @param served    keys handed out by {@link #take()}
+     * @param exhausted calls to {@link #take()} that found the pool empty
+     * @param available keys ready to be handed out right now
+     */
+    public record Stats(long generated, long served, long exhausted, int available) {
+    }
+}
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSObject;
+import com.nimbusds.jose.jwk.JWK;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-JVM OID4VCI issuer for benchmarking wallets and {@link IssuanceLoadDriver}.
+ * {@link #createOfferUri()} mints a pre-authorized {@code openid-credential-offer://}
+ * URI without any I/O; the wallet redeems it at the token and credential
+ * endpoints, and gets an SD-JWT from {@link SdJwtCredentialBuilder} bound to
+ * the key in its proof.
+ *
+ * <pre>{@code
+ * StubIssuer issuer = new StubIssuer()
+ *     .credentialConfiguration("urn:eu.europa.ec.eudi:pid:1", Map.of("given_name", "Erika"))
+ *     .start();
+ * new IssuanceLoadDriver(issuer::createOfferUri, wallet.client()).offers(1_000).run();
+ * issuer.credentialsIssued();
+ * }</pre>
+ *
+ * <p>Proofs are checked for signature and {@code c_nonce}; there is no
+ * authorization code flow and no transaction code.
+ */
+public class StubIssuer extends StubServer {
+
+    private static final String PRE_AUTHORIZED_GRANT = "urn:ietf:params:oauth:grant-type:pre-authorized_code";
+    private static final Duration DEFAULT_EXPIRY = Duration.ofMinutes(5);
+
+    private final JWK signingKey;
+    private final Map<String, Map<String, Object>> configurations = new LinkedHashMap<>();
+    private final ExpiringMap<String, String> pendingOffers = new ExpiringMap<>(DEFAULT_EXPIRY);
+    private final ExpiringMap<String, String> accessTokens = new ExpiringMap<>(DEFAULT_EXPIRY);
+    private final ExpiringMap<String, Boolean> nonces = new ExpiringMap<>(DEFAULT_EXPIRY);
+    private final LongAdder offersCreated = new LongAdder();
+    private final LongAdder offersRedeemed = new LongAdder();
+    private final LongAdder credentialsIssued = new LongAdder();
+    private final LongAdder proofsRejected = new LongAdder();
+    private volatile Duration expiry = DEFAULT_EXPIRY;
+
+    public StubIssuer() {
+        this(JwsSupport.generateKey(JWSAlgorithm.ES256));
+    }
+
+    public StubIssuer(JWK signingKey) {
+        this.signingKey = signingKey;
+    }
+
+    public StubIssuer port(int port) {
+        setPort(port);
+        return this;
+    }
+
+    /**
+     * How long offers, access tokens and nonces stay valid; unused ones are
+     * dropped afterwards. Defaults to 5 minutes.
+     */
+    public StubIssuer expireAfter(Duration expiry) {
+        if (expiry.isNegative() || expiry.isZero()) {
+            throw new IllegalArgumentException("Expiry must be positive: " + expiry);
+        }
+        this.expiry = expiry;
+        pendingOffers.ttl(expiry);
+        accessTokens.ttl(expiry);
+        nonces.ttl(expiry);
+        return this;
+    }
+
+    /**
+     * Offers SD-JWTs with {@code vct} as configuration ID, carrying
+     * {@code claims} as selectively disclosable claims. Without any
+     * configuration, {@code urn:eu.europa.ec.eudi:pid:1} with a minimal PID is offered.
+     */
+    public synchronized StubIssuer credentialConfiguration(String vct, Map<String, Object> claims) {
+        configurations.put(vct, Map.copyOf(claims));
+        return this;
+    }
+
+    @Override
+    public synchronized StubIssuer start() {
+        if (configurations.isEmpty()) {
+            configurations.put("urn:eu.europa.ec.eudi:pid:1", Map.of("given_name", "ERIKA", "family_name", "MUSTERMANN"));
+        }
+        super.start();
+        return this;
+    }
+
+    public JWK getSigningKey() {
+        return signingKey.toPublicJWK();
+    }
+
+    /**
+     * Returns a by-value offer for the first credential configuration.
+     */
+    public String createOfferUri() {
+        return createOfferUri(firstConfiguration());
+    }
+
+    public String createOfferUri(String configurationId) {
+        if (!configurationsContain(configurationId)) {
+            throw new IllegalArgumentException("Unknown credential configuration: " + configurationId);
+        }
+        String code = UUID.randomUUID().toString();
+        pendingOffers.put(code, configurationId);
+        offersCreated.increment();
+        String offer = toJson(Map.of(
+                "credential_issuer", getBaseUrl(),
+                "credential_configuration_ids", List.of(configurationId),
+                "grants", Map.of(PRE_AUTHORIZED_GRANT, Map.of("pre-authorized_code", code))));
+        return "openid-credential-offer://?credential_offer=" + URLEncoder.encode(offer, StandardCharsets.UTF_8);
+    }
+
+    public long offersCreated() {
+        return offersCreated.sum();
+    }
+
+    /** Offers whose pre-authorized code was exchanged for an access token. */
+    public long offersRedeemed() {
+        return offersRedeemed.sum();
+    }
+
+    /** Completed issuance flows. */
+    public long credentialsIssued() {
+        return credentialsIssued.sum();
+    }
+
+    public long proofsRejected() {
+        return proofsRejected.sum();
+    }
+
+    @Override
+    Response handle(HttpExchange exchange, String body) throws IOException {
+        String route = exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath();
+        return switch (route) {
+            case "GET /.well-known/openid-credential-issuer" -> json(issuerMetadata());
+            case "GET /.well-known/oauth-authorization-server" -> json(Map.of(
+                    "issuer", getBaseUrl(),
+                    "token_endpoint", getBaseUrl() + "/token",
+                    "grant_types_supported", List.of(PRE_AUTHORIZED_GRANT),
+                    "pre-authorized_grant_anonymous_access_supported", true));
+            case "POST /token" -> token(formParameters(body));
+            case "POST /nonce" -> json(Map.of("c_nonce", newNonce()));
+            case "POST /credential" -> credential(exchange.getRequestHeaders().getFirst("Authorization"), body);
+            default -> error(404, "not_found", route);
+        };
+    }
+
+    private synchronized Map<String, Object> issuerMetadata() {
+        Map<String, Object> supported = new LinkedHashMap<>();
+        configurations.keySet().forEach(vct -> supported.put(vct, Map.of(
+                "format", CredentialFormat.SD_JWT.getWireValue(),
+                "vct", vct,
+                "cryptographic_binding_methods_supported", List.of("jwk"),
+                "credential_signing_alg_values_supported", List.of(JwsSupport.algorithmFor(signingKey).getName()),
+                "proof_types_supported", Map.of("jwt", Map.of(
+                        "proof_signing_alg_values_supported", List.of("ES256", "ES384", "ES512", "EdDSA"))))));
+        return Map.of(
+                "credential_issuer", getBaseUrl(),
+                "authorization_servers", List.of(getBaseUrl()),
+                "token_endpoint", getBaseUrl() + "/token",
+                "credential_endpoint", getBaseUrl() + "/credential",
+                "nonce_endpoint", getBaseUrl() + "/nonce",
+                "credential_configurations_supported", supported);
+    }
+
+    private Response token(Map<String, String> form) {
+        if (!PRE_AUTHORIZED_GRANT.equals(form.get("grant_type"))) {
+            return error(400, "unsupported_grant_type", form.get("grant_type"));
+        }
+        String configurationId = pendingOffers.remove(String.valueOf(form.get("pre-authorized_code")));
+        if (configurationId == null) {
+            return error(400, "invalid_grant", "Unknown or used pre-authorized code");
+        }
+        String accessToken = UUID.randomUUID().toString();
+        accessTokens.put(accessToken, configurationId);
+        offersRedeemed.increment();
+        // no c_nonce: the wallet gets it from the advertised nonce endpoint
+        return json(Map.of("access_token", accessToken, "token_type", "Bearer",
+                "expires_in", expiry.toSeconds()));
+    }
+
+    private Response credential(String authorization, String body) {
+        if (authorization == null || !authorization.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return error(401, "invalid_token", "Missing bearer token");
+        }
+        String accessToken = authorization.substring(7).trim();
+        String configurationId = accessTokens.get(accessToken);
+        if (configurationId == null) {
+            return error(401, "invalid_token", "Unknown or used access token");
+        }
+
+        Map<String, Object> request = readJson(body);
+        JWK holderKey;
+        try {
+            holderKey = verifyProof(proofJwt(request));
+        } catch (IllegalArgumentException e) {
+            // the token stays valid, so the wallet can retry with a fresh nonce
+            proofsRejected.increment();
+            return error(400, "invalid_proof", e.getMessage());
+        }
+        if (!accessTokens.remove(accessToken, configurationId)) {
+            return error(401, "invalid_token", "Unknown or used access token");
+        }
+
+        SdJwtCredentialBuilder builder = new SdJwtCredentialBuilder(signingKey)
+                .vct(configurationId)
+                .issuer(getBaseUrl())
+                .holderBindingKey(holderKey);
+        configuration(configurationId).forEach(builder::claim);
+        String credential = builder.build();
+        credentialsIssued.increment();
+        return json(Map.of("credentials", List.of(Map.of("credential", credential))));
+    }
+
+    private static String proofJwt(Map<String, Object> request) {
+        if (request.get("proofs") instanceof Map<?, ?> proofs && proofs.get("jwt") instanceof List<?> jwts
+                && !jwts.isEmpty()) {
+            return String.valueOf(jwts.getFirst());
+        }
+        if (request.get("proof") instanceof Map<?, ?> proof && proof.get("jwt") != null) {
+            return String.valueOf(proof.get("jwt"));
+        }
+        throw new IllegalArgumentException("Credential request has no JWT proof");
+    }
+
+    // Any c_nonce handed out by the nonce endpoint is accepted once.
+    private JWK verifyProof(String proof) {
+        try {
+            JWSObject jws = JWSObject.parse(proof);
+            JWK holderKey = jws.getHeader().getJWK();
+            if (holderKey == null) {
+                throw new IllegalArgumentException("Proof header has no jwk");
+            }
+            if (!jws.verify(JwsSupport.verifierFor(holderKey))) {
+                throw new IllegalArgumentException("Proof signature invalid");
+            }
+            Map<String, Object> claims = jws.getPayload().toJSONObject();
+            if (!(claims.get("nonce") instanceof String nonce) || nonces.remove(nonce) == null) {
+                throw new IllegalArgumentException("Proof nonce is not an unused c_nonce");
+            }
+            return holderKey;
+        } catch (ParseException | JOSEException e) {
+            throw new IllegalArgumentException("Malformed proof: " + e.getMessage(), e);
+        }
+    }
+
+    private String newNonce() {
+        String nonce = UUID.randomUUID().toString();
+        nonces.put(nonce, Boolean.TRUE);
+        return nonce;
+    }
+
+    int openEntries() {
+        return pendingOffers.size() + accessTokens.size() + nonces.size();
+    }
+
+    private synchronized String firstConfiguration() {
+        if (configurations.isEmpty()) {
+            throw new IllegalStateException("StubIssuer not started");
+        }
+        return configurations.keySet().iterator().next();
+    }
+
+    private synchronized boolean configurationsContain(String configurationId) {
+        return configurations.containsKey(configurationId);
+    }
+
+    private synchronized Map<String, Object> configuration(String configurationId) {
+        return configurations.get(configurationId);
+    }
+}
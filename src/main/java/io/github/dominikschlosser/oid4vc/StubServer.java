@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * HTTP plumbing shared by {@link StubIssuer} and {@link StubVerifier}. The
+ * server listens on all interfaces, so a wallet container started with
+ * {@link Oid4vcContainer#withHostAccess()} reaches it at
+ * {@code http://localhost:<port>}, which is also the URL put into offers and
+ * requests.
+ */
+abstract class StubServer implements AutoCloseable {
+
+    static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private int port;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Fixed port to listen on; by default a free port is picked.
+     */
+    void setPort(int port) {
+        this.port = port;
+    }
+
+    public synchronized StubServer start() {
+        if (server != null) {
+            throw new IllegalStateException(getClass().getSimpleName() + " already started");
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start " + getClass().getSimpleName(), e);
+        }
+        executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/", this::dispatch);
+        server.start();
+        return this;
+    }
+
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.close();
+            server = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        stop();
+    }
+
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException(getClass().getSimpleName() + " not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    public String getBaseUrl() {
+        return "http://localhost:" + getPort();
+    }
+
+    abstract Response handle(HttpExchange exchange, String body) throws IOException;
+
+    private void dispatch(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                response = handle(exchange, new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                response = error(400, "invalid_request", e.getMessage());
+            } catch (RuntimeException e) {
+                response = error(500, "server_error", e.toString());
+            }
+            byte[] bytes = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            exchange.sendResponseHeaders(response.status(), bytes.length == 0 ? -1 : bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    static Map<String, String> formParameters(String encoded) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return params;
+        }
+        for (String pair : encoded.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    static String query(Map<String, String> params) {
+        return params.entrySet().stream()
+                .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+    }
+
+    static Map<String, Object> readJson(String json) {
+        try {
+            return MAPPER.readValue(json, new TypeReference<>() {});
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON body", e);
+        }
+    }
+
+    static String toJson(Object value) {
+        try {
+            return MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize response", e);
+        }
+    }
+
+    static Response json(Object body) {
+        return new Response(200, "application/json", toJson(body));
+    }
+
+    static Response error(int status, String error, String description) {
+        Map<String, String> body = new LinkedHashMap<>();
+        body.put("error", error);
+        body.put("error_description", String.valueOf(description));
+        return new Response(status, "application/json", toJson(body));
+    }
+
+    record Response(int status, String contentType, String body) {
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.util.Base64;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.IOException;
+import java.security.cert.CertificateEncodingException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-JVM OID4VP verifier for benchmarking wallets and
+ * {@link PresentationLoadDriver}. {@link #createRequestUri()} returns an
+ * {@code openid4vp://} URI by reference; the wallet fetches a signed request
+ * object asking for one SD-JWT by {@code vct} and posts its answer to the
+ * {@code direct_post} response endpoint.
+ *
+ * <pre>{@code
+ * StubVerifier verifier = new StubVerifier().vct("urn:eu.europa.ec.eudi:pid:1").trust(issuerKey).start();
+ * new PresentationLoadDriver(verifier::createRequestUri, wallet.client()).requests(1_000).run();
+ * verifier.presentationsVerified();
+ * }</pre>
+ *
+ * <p>With trusted issuer keys, answers are checked with {@link SdJwtVerifier},
+ * including the key-binding nonce. Without, any {@code vp_token} counts as
+ * verified. For {@code x509_san_dns} client IDs, the default, the request
+ * object carries a self-signed certificate for the DNS name in its
+ * {@code x5c} header; wallets that check the chain must trust
+ * {@link #getCertificate()}.
+ */
+public class StubVerifier extends StubServer {
+
+    private static final String X509_SAN_DNS = "x509_san_dns:";
+
+    private final JWK signingKey;
+    private final JWSSigner signer;
+    private final List<JWK> trustedKeys = new ArrayList<>();
+    private final ExpiringMap<String, Transaction> transactions = new ExpiringMap<>(Duration.ofMinutes(5));
+    private final LongAdder requestsCreated = new LongAdder();
+    private final LongAdder requestsFetched = new LongAdder();
+    private final LongAdder presentationsVerified = new LongAdder();
+    private final LongAdder presentationsRejected = new LongAdder();
+    private final LongAdder errorResponses = new LongAdder();
+
+    private String vct = "urn:eu.europa.ec.eudi:pid:1";
+    private String clientId = "x509_san_dns:localhost";
+    private volatile SdJwtVerifier verifier;
+    private volatile X509Certificate certificate;
+
+    public StubVerifier() {
+        this(JwsSupport.generateKey(JWSAlgorithm.ES256));
+    }
+
+    public StubVerifier(JWK signingKey) {
+        this.signingKey = signingKey;
+        this.signer = JwsSupport.signerFor(signingKey);
+    }
+
+    public StubVerifier port(int port) {
+        setPort(port);
+        return this;
+    }
+
+    /**
+     * The {@code vct} requested via DCQL. Defaults to {@code urn:eu.europa.ec.eudi:pid:1}.
+     */
+    public StubVerifier vct(String vct) {
+        this.vct = vct;
+        return this;
+    }
+
+    /**
+     * How long a created request can be fetched and answered; abandoned ones
+     * are dropped afterwards. Defaults to 5 minutes.
+     */
+    public StubVerifier expireAfter(Duration expiry) {
+        if (expiry.isNegative() || expiry.isZero()) {
+            throw new IllegalArgumentException("Expiry must be positive: " + expiry);
+        }
+        transactions.ttl(expiry);
+        return this;
+    }
+
+    public StubVerifier clientId(String clientId) {
+        this.clientId = clientId;
+        return this;
+    }
+
+    /**
+     * Adds issuer keys presentations are verified against.
+     */
+    public synchronized StubVerifier trust(JWK... keys) {
+        trustedKeys.addAll(List.of(keys));
+        verifier = new SdJwtVerifier(trustedKeys.toArray(JWK[]::new));
+        return this;
+    }
+
+    @Override
+    public StubVerifier start() {
+        if (clientId.startsWith(X509_SAN_DNS)) {
+            certificate = X509Support.selfSigned(signingKey, clientId.substring(X509_SAN_DNS.length()),
+                    Duration.ofDays(365));
+        }
+        super.start();
+        return this;
+    }
+
+    public JWK getSigningKey() {
+        return signingKey.toPublicJWK();
+    }
+
+    /**
+     * The self-signed certificate sent in {@code x5c}, or {@code null} if the
+     * client ID is not an {@code x509_san_dns} one or the verifier has not
+     * been started.
+     */
+    public X509Certificate getCertificate() {
+        return certificate;
+    }
+
+    public String createRequestUri() {
+        String id = UUID.randomUUID().toString();
+        transactions.put(id, new Transaction(UUID.randomUUID().toString()));
+        requestsCreated.increment();
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("client_id", clientId);
+        params.put("request_uri", getBaseUrl() + "/request/" + id);
+        return "openid4vp://?" + query(params);
+    }
+
+    public long requestsCreated() {
+        return requestsCreated.sum();
+    }
+
+    public long requestsFetched() {
+        return requestsFetched.sum();
+    }
+
+    /** Completed presentation flows. */
+    public long presentationsVerified() {
+        return presentationsVerified.sum();
+    }
+
+    public long presentationsRejected() {
+        return presentationsRejected.sum();
+    }
+
+    /** Responses in which the wallet reported an error instead of a presentation. */
+    public long errorResponses() {
+        return errorResponses.sum();
+    }
+
+    @Override
+    Response handle(HttpExchange exchange, String body) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (method.equals("GET") && path.startsWith("/request/")) {
+            return requestObject(path.substring("/request/".length()));
+        }
+        if (method.equals("POST") && path.startsWith("/response/")) {
+            return response(path.substring("/response/".length()), formParameters(body));
+        }
+        return error(404, "not_found", method + " " + path);
+    }
+
+    private Response requestObject(String id) {
+        Transaction transaction = transactions.get(id);
+        if (transaction == null) {
+            return error(404, "invalid_request_uri", "Unknown request " + id);
+        }
+        requestsFetched.increment();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .audience("https://self-issued.me/v2")
+                .issueTime(new Date())
+                .claim("client_id", clientId)
+                .claim("response_type", "vp_token")
+                .claim("response_mode", "direct_post")
+                .claim("response_uri", getBaseUrl() + "/response/" + id)
+                .claim("nonce", transaction.nonce())
+                .claim("state", id)
+                .claim("dcql_query", Map.of("credentials", List.of(Map.of(
+                        "id", "credential",
+                        "format", CredentialFormat.SD_JWT.getWireValue(),
+                        "meta", Map.of("vct_values", List.of(vct))))))
+                .build();
+        try {
+            JWSHeader.Builder header = new JWSHeader.Builder(JwsSupport.algorithmFor(signingKey))
+                    .type(new JOSEObjectType("oauth-authz-req+jwt"))
+                    .keyID(signingKey.getKeyID());
+            X509Certificate x5c = certificate;
+            if (x5c != null) {
+                header.x509CertChain(List.of(Base64.encode(x5c.getEncoded())));
+            }
+            SignedJWT jwt = new SignedJWT(header.build(), claims);
+            jwt.sign(signer);
+            return new Response(200, "application/oauth-authz-req+jwt", jwt.serialize());
+        } catch (JOSEException | CertificateEncodingException e) {
+            throw new IllegalStateException("Failed to sign request object", e);
+        }
+    }
+
+    private Response response(String id, Map<String, String> form) {
+        // consumed only by a response with the right state, so a stray post cannot cancel the flow
+        Transaction transaction = transactions.get(id);
+        if (transaction == null || !id.equals(form.get("state")) || !transactions.remove(id, transaction)) {
+            return error(400, "invalid_request", "Unknown or completed transaction " + id);
+        }
+        if (form.containsKey("error")) {
+            errorResponses.increment();
+            return json(Map.of("redirect_uri", getBaseUrl() + "/done/" + id + "?error=" + form.get("error")));
+        }
+        try {
+            verify(form.get("vp_token"), transaction.nonce());
+        } catch (IllegalArgumentException | SdJwtVerificationException e) {
+            presentationsRejected.increment();
+            return error(400, "invalid_presentation", e.getMessage());
+        }
+        presentationsVerified.increment();
+        return json(Map.of("redirect_uri", getBaseUrl() + "/done/" + id));
+    }
+
+    int openTransactions() {
+        return transactions.size();
+    }
+
+    private void verify(String vpToken, String nonce) {
+        if (vpToken == null || vpToken.isBlank()) {
+            throw new IllegalArgumentException("Response has no vp_token");
+        }
+        SdJwtVerifier trusted = verifier;
+        if (trusted == null) {
+            return;
+        }
+        Object presentations = readJson(vpToken).get("credential");
+        String presentation = presentations instanceof List<?> list && !list.isEmpty()
+                ? String.valueOf(list.getFirst())
+                : String.valueOf(presentations);
+        VerifiedSdJwt verified = trusted.verify(presentation);
+        if (!vct.equals(verified.vct())) {
+            throw new IllegalArgumentException("Presented vct " + verified.vct() + ", requested " + vct);
+        }
+        if (verified.keyBinding() == null || !nonce.equals(verified.keyBinding().get("nonce"))) {
+            throw new IllegalArgumentException("Key-binding JWT missing or nonce mismatch");
+        }
+    }
+
+    private record Transaction(String nonce) {
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.util.Map;
+
+/**
+ * Result of {@link SdJwtVerifier#verify(String)}.
+ *
+ * @param claims          the issuer-signed payload with every disclosure put back
+ *                        in place and {@code _sd}/{@code _sd_alg} removed
+ * @param disclosureCount number of disclosures in the SD-JWT
+ * @param keyBinding      claims of the verified key-binding JWT ({@code nonce},
+ *                        {@code aud}, {@code iat}, {@code sd_hash}), or
+ *                        {@code null} if the SD-JWT had none
+ */
+public record VerifiedSdJwt(Map<String, Object> claims, int disclosureCount, Map<String, Object> keyBinding) {
+
+    public Object claim(String name) {
+        return claims.get(name);
+    }
+
+    public String vct() {
+        return (String) claims.get("vct");
+    }
+
+    public String issuer() {
+        return (String) claims.get("iss");
+    }
+}
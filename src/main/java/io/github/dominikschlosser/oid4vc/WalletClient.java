@@ -16,31 +16,44 @@
 package io.github.dominikschlosser.oid4vc;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class WalletClient {
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long MIN_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
 
     private final String baseUrl;
-    private final HttpClient httpClient;
+    private final WalletTransport transport;
 
     WalletClient(String baseUrl) {
+        this(baseUrl, WalletTransport.http(baseUrl));
+    }
+
+    WalletClient(String baseUrl, WalletTransport transport) {
         this.baseUrl = baseUrl;
-        this.httpClient = HttpClient.newHttpClient();
+        this.transport = transport;
     }
 
     public List<Credential> getCredentials() {
-        String body = get(baseUrl + "/api/credentials");
+        return parseCredentials(get("/api/credentials"));
+    }
+
+    static List<Credential> parseCredentials(String body) {
         try {
             List<Map<String, Object>> raw = MAPPER.readValue(body, new TypeReference<>() {});
             return raw.stream()
@@ -52,35 +65,35 @@ public class WalletClient {
     }
 
     public String getTrustList() {
-        return get(baseUrl + "/api/trustlist");
+        return get("/api/trustlist");
     }
 
     public String getStatusList() {
-        return get(baseUrl + "/api/statuslist");
+        return get("/api/statuslist");
     }
 
     public void setNextError(String error, String errorDescription) {
-        postJson(baseUrl + "/api/next-error", toJson(Map.of("error", error, "error_description", errorDescription)));
+        postJson("/api/next-error", toJson(Map.of("error", error, "error_description", errorDescription)));
     }
 
     public void clearNextError() {
-        delete(baseUrl + "/api/next-error");
+        delete("/api/next-error");
     }
 
     public void setPreferredFormat(CredentialFormat format) {
-        putJson(baseUrl + "/api/config/preferred-format", toJson(Map.of("format", format.getWireValue())));
+        putJson("/api/config/preferred-format", toJson(Map.of("format", format.getWireValue())));
     }
 
     public void clearPreferredFormat() {
-        putJson(baseUrl + "/api/config/preferred-format", toJson(Map.of("format", "")));
+        putJson("/api/config/preferred-format", toJson(Map.of("format", "")));
     }
 
     public void importCredential(String rawCredential) {
-        postRaw(baseUrl + "/api/credentials", rawCredential);
+        postRaw("/api/credentials", rawCredential);
     }
 
     public void setCredentialStatus(String credentialId, int status) {
-        postJson(baseUrl + "/api/credentials/" + credentialId + "/status", toJson(Map.of("status", status)));
+        postJson("/api/credentials/" + credentialId + "/status", toJson(Map.of("status", status)));
     }
 
     public void revokeCredential(String credentialId) {
@@ -92,7 +105,7 @@ public class WalletClient {
     }
 
     public PresentationResponse acceptPresentationRequest(String uri) {
-        String body = postJson(baseUrl + "/api/presentations", toJson(Map.of("uri", uri)));
+        String body = postJson("/api/presentations", toJson(Map.of("uri", uri)));
         try {
             Map<String, Object> parsed = MAPPER.readValue(body, new TypeReference<>() {});
             String redirectUri = (String) parsed.get("redirect_uri");
@@ -109,12 +122,12 @@ public class WalletClient {
     }
 
     public OfferResponse acceptCredentialOffer(String uri) {
-        String body = postJson(baseUrl + "/api/offers", toJson(Map.of("uri", uri)));
+        String body = postJson("/api/offers", toJson(Map.of("uri", uri)));
         return new OfferResponse(body);
     }
 
     public void deleteCredential(String id) {
-        delete(baseUrl + "/api/credentials/" + id);
+        delete("/api/credentials/" + id);
     }
 
     public boolean hasCredentialWithType(String type) {
@@ -134,50 +147,172 @@ public class WalletClient {
                 .forEach(c -> deleteCredential(c.id()));
     }
 
-    private String get(String url) {
-        return sendRequest(HttpRequest.newBuilder().uri(URI.create(url)).GET().build());
+    /**
+     * Waits until the wallet holds a credential matching {@code condition},
+     * e.g. after an offer the wallet processes asynchronously, and returns it.
+     *
+     * @throws IllegalStateException if none shows up within {@code timeout}
+     */
+    public Credential awaitCredential(Predicate<Credential> condition, Duration timeout) {
+        return poll("/api/credentials", "a matching credential", timeout,
+                body -> parseCredentials(body).stream().filter(condition).findFirst());
+    }
+
+    /**
+     * Waits until no credential matches {@code condition}, e.g. after a
+     * deletion.
+     *
+     * @throws IllegalStateException if one is still there after {@code timeout}
+     */
+    public void awaitNoCredential(Predicate<Credential> condition, Duration timeout) {
+        poll("/api/credentials", "no matching credential", timeout,
+                body -> parseCredentials(body).stream().noneMatch(condition) ? Optional.of(body) : Optional.empty());
+    }
+
+    /**
+     * Waits until the status list differs from {@code previous} and returns the
+     * new token. Use it after {@link #setCredentialStatus(String, int)} with the
+     * status list fetched before. Tokens are compared by their
+     * {@code status_list} claim, since the wallet signs a fresh token on every
+     * request.
+     *
+     * @throws IllegalArgumentException if {@code previous} has no {@code status_list} claim
+     * @throws IllegalStateException if it is unchanged after {@code timeout}
+     */
+    public String awaitStatusListChange(String previous, Duration timeout) {
+        JsonNode before;
+        try {
+            before = statusListClaim(previous);
+        } catch (WalletClientException e) {
+            throw new IllegalArgumentException("previous is not a status list token: " + e.getMessage(), e);
+        }
+        return poll("/api/statuslist", "a status list change", timeout, WalletClient::statusListClaim,
+                body -> statusListClaim(body).equals(before) ? Optional.empty() : Optional.of(body));
+    }
+
+    static JsonNode statusListClaim(String statusListToken) {
+        String[] parts = statusListToken.split("\\.");
+        if (parts.length < 2) {
+            throw new WalletClientException("Status list response is not a JWT");
+        }
+        JsonNode claim;
+        try {
+            claim = MAPPER.readTree(Base64.getUrlDecoder().decode(parts[1])).path("status_list");
+        } catch (IOException | IllegalArgumentException e) {
+            throw new WalletClientException("Failed to parse status list token", e);
+        }
+        if (claim.isMissingNode()) {
+            throw new WalletClientException("Status list token has no status_list claim");
+        }
+        return claim;
+    }
+
+    private <T> T poll(String path, String description, Duration timeout, Function<String, Optional<T>> probe) {
+        return poll(path, description, timeout, Function.identity(), probe);
     }
 
-    private String postJson(String url, String body) {
-        return sendRequest(HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build());
+    /*
+     * oid4vc-dev has neither push notifications nor ETags, so this polls. A
+     * body whose state is unchanged is not evaluated again, and each unchanged
+     * poll doubles the delay up to MAX_POLL_NANOS. A changed state means the
+     * wallet is busy, so the delay drops back to MIN_POLL_NANOS.
+     */
+    private <T> T poll(String path, String description, Duration timeout, Function<String, ?> state,
+                       Function<String, Optional<T>> probe) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long delay = MIN_POLL_NANOS;
+        Object previous = null;
+        while (true) {
+            String body = get(path);
+            Object current = state.apply(body);
+            if (!current.equals(previous)) {
+                Optional<T> result = probe.apply(body);
+                if (result.isPresent()) {
+                    return result.get();
+                }
+                if (previous != null) {
+                    delay = MIN_POLL_NANOS;
+                }
+                previous = current;
+            } else {
+                delay = Math.min(delay * 2, MAX_POLL_NANOS);
+            }
+
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                throw new IllegalStateException("Timed out after " + timeout + " waiting for "
+                        + description + " at " + baseUrl + path);
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(Math.min(delay, remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new WalletClientException("Interrupted while waiting for " + description, e);
+            }
+        }
+    }
+
+    String getBaseUrl() {
+        return baseUrl;
     }
 
-    private String postRaw(String url, String body) {
-        return sendRequest(HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .POST(HttpRequest.BodyPublishers.ofString(body))
-                .build());
+    WalletTransport getTransport() {
+        return transport;
     }
 
-    private String putJson(String url, String body) {
-        return sendRequest(HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/json")
-                .PUT(HttpRequest.BodyPublishers.ofString(body))
-                .build());
+    private String get(String path) {
+        return sendRequest("GET", path, null, null);
     }
 
-    private String delete(String url) {
-        return sendRequest(HttpRequest.newBuilder().uri(URI.create(url)).DELETE().build());
+    private String postJson(String path, String body) {
+        return sendRequest("POST", path, "application/json", body);
     }
 
-    private String sendRequest(HttpRequest request) {
+    private String postRaw(String path, String body) {
+        return sendRequest("POST", path, null, body);
+    }
+
+    private String putJson(String path, String body) {
+        return sendRequest("PUT", path, "application/json", body);
+    }
+
+    private String delete(String path) {
+        return sendRequest("DELETE", path, null, null);
+    }
+
+    private String sendRequest(String method, String path, String contentType, String body) {
+        WalletRequestEvent event = new WalletRequestEvent();
+        event.begin();
+        int status = -1;
+        String responseBody = null;
         try {
-            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
-            if (response.statusCode() >= 400) {
-                throw new WalletClientException("HTTP " + response.statusCode() + " " + request.method()
-                        + " " + request.uri() + ": " + response.body());
+            WalletTransport.Response response = transport.send(method, path, contentType, body);
+            status = response.status();
+            responseBody = response.body();
+            if (status >= 400) {
+                throw new WalletClientException("HTTP " + status + " " + method
+                        + " " + baseUrl + path + ": " + responseBody, status);
             }
-            return response.body();
+            return responseBody;
         } catch (IOException | InterruptedException e) {
-            throw new WalletClientException("HTTP request failed: " + request.method() + " " + request.uri(), e);
+            throw new WalletClientException("HTTP request failed: " + method + " " + baseUrl + path, e);
+        } finally {
+            if (event.shouldCommit()) {
+                event.method = method;
+                event.endpoint = WalletRequestEvent.endpoint(path);
+                event.baseUrl = baseUrl;
+                event.status = status;
+                event.requestBytes = utf8Length(body);
+                event.responseBytes = utf8Length(responseBody);
+                event.commit();
+            }
         }
     }
 
+    private static long utf8Length(String value) {
+        return value == null ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
     private static String toJson(Map<String, ?> map) {
         try {
             return MAPPER.writeValueAsString(map);
@@ -187,7 +322,7 @@ public class WalletClient {
     }
 
     @SuppressWarnings("unchecked")
-    private static Credential toCredential(Map<String, Object> raw) {
+    static Credential toCredential(Map<String, Object> raw) {
         String id = (String) raw.get("id");
         CredentialFormat format = CredentialFormat.fromWireValue((String) raw.get("format"));
         String type = (String) raw.get("type");
@@ -17,11 +17,27 @@ package io.github.dominikschlosser.oid4vc;
 
 public class WalletClientException extends RuntimeException {
 
+    private final int statusCode;
+
     public WalletClientException(String message) {
+        this(message, -1);
+    }
+
+    public WalletClientException(String message, int statusCode) {
         super(message);
+        this.statusCode = statusCode;
     }
 
     public WalletClientException(String message, Throwable cause) {
         super(message, cause);
+        this.statusCode = -1;
+    }
+
+    /**
+     * Returns the HTTP status code reported by the wallet, or {@code -1} if the
+     * request failed before a response was received.
+     */
+    public int getStatusCode() {
+        return statusCode;
     }
 }
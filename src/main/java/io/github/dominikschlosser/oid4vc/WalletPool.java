@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Lazily grown pool of started wallets behind {@link Oid4vcWalletExtension}.
+ */
+final class WalletPool implements ExtensionContext.Store.CloseableResource {
+
+    private final int maxSize;
+    private final Supplier<PooledWallet> factory;
+    private final BlockingQueue<PooledWallet> idle = new LinkedBlockingQueue<>();
+    private final List<PooledWallet> all = new ArrayList<>();
+    private int slots;
+
+    WalletPool(int maxSize, Supplier<PooledWallet> factory) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Pool size must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.factory = factory;
+    }
+
+    static PooledWallet embedded() {
+        EmbeddedWallet wallet = new EmbeddedWallet().withStatusList().start();
+        return new PooledWallet(wallet, wallet.client(), wallet::stop);
+    }
+
+    static PooledWallet container(String image) {
+        Oid4vcContainer container = (image.isEmpty() ? new Oid4vcContainer() : new Oid4vcContainer(image))
+                .withStatusList();
+        container.start();
+        return new PooledWallet(container, container.client(), container::stop);
+    }
+
+    Lease acquire() {
+        PooledWallet wallet = idle.poll();
+        if (wallet == null && reserveSlot()) {
+            try {
+                wallet = factory.get();
+            } catch (RuntimeException e) {
+                releaseSlot(null);
+                throw e;
+            }
+            register(wallet);
+        }
+        if (wallet == null) {
+            try {
+                wallet = idle.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for a pooled wallet", e);
+            }
+        }
+        return new Lease(this, wallet);
+    }
+
+    synchronized int size() {
+        return slots;
+    }
+
+    @Override
+    public void close() {
+        List<PooledWallet> wallets;
+        synchronized (this) {
+            wallets = List.copyOf(all);
+            all.clear();
+            slots = 0;
+        }
+        idle.clear();
+        wallets.forEach(PooledWallet::stop);
+    }
+
+    private void release(PooledWallet wallet) {
+        if (wallet.reset()) {
+            idle.add(wallet);
+            return;
+        }
+        wallet.stop();
+        releaseSlot(wallet);
+    }
+
+    // slots are reserved before starting a wallet, which happens outside the lock
+    private synchronized boolean reserveSlot() {
+        if (slots >= maxSize) {
+            return false;
+        }
+        slots++;
+        return true;
+    }
+
+    private synchronized void register(PooledWallet wallet) {
+        all.add(wallet);
+    }
+
+    private synchronized void releaseSlot(PooledWallet wallet) {
+        slots--;
+        if (wallet != null) {
+            all.remove(wallet);
+        }
+    }
+
+    record Lease(WalletPool pool, PooledWallet pooled) implements ExtensionContext.Store.CloseableResource {
+
+        Object wallet() {
+            return pooled.wallet();
+        }
+
+        WalletClient client() {
+            return pooled.client();
+        }
+
+        @Override
+        public void close() {
+            pool.release(pooled);
+        }
+    }
+
+    static final class PooledWallet {
+
+        private final Object wallet;
+        private final WalletClient client;
+        private final Runnable stopper;
+        private final Set<String> baseline;
+
+        PooledWallet(Object wallet, WalletClient client, Runnable stopper) {
+            this.wallet = wallet;
+            this.client = client;
+            this.stopper = stopper;
+            this.baseline = ids(client.getCredentials());
+        }
+
+        Object wallet() {
+            return wallet;
+        }
+
+        WalletClient client() {
+            return client;
+        }
+
+        /**
+         * Restores the state after start; returns false if that is not possible.
+         */
+        boolean reset() {
+            try {
+                client.clearNextError();
+                client.clearPreferredFormat();
+                Set<String> current = ids(client.getCredentials());
+                if (!current.containsAll(baseline)) {
+                    return false;
+                }
+                for (String id : current) {
+                    if (baseline.contains(id)) {
+                        client.unrevokeCredential(id);
+                    } else {
+                        client.deleteCredential(id);
+                    }
+                }
+                return true;
+            } catch (WalletClientException e) {
+                return false;
+            }
+        }
+
+        void stop() {
+            stopper.run();
+        }
+
+        private static Set<String> ids(List<Credential> credentials) {
+            return credentials.stream().map(Credential::id).collect(Collectors.toSet());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Records {@link WalletClient} traffic to a file and replays it without a
+ * wallet, so regression suites only need the container when recordings are
+ * refreshed.
+ *
+ * <pre>{@code
+ * WalletClient client = WalletRecording.record(wallet.client(), Path.of("src/test/resources/flow.ndjson"));
+ * // ... later, no container:
+ * WalletClient client = WalletRecording.replay(Path.of("src/test/resources/flow.ndjson"));
+ * }</pre>
+ *
+ * <p>The file holds one JSON object per exchange: method, path, request body,
+ * status and response body. Paths are stored as endpoint templates such as
+ * {@code /api/credentials/{id}}, since credential ids differ between runs. On
+ * replay, responses are looked up by method and endpoint and served in
+ * recorded order; once all recorded responses for a
+ * request are used, replay starts over with the first, so a recorded flow can
+ * be repeated any number of times. Request bodies are stored for reference
+ * but not matched, since presentation URIs carry fresh nonces on every run.
+ */
+public final class WalletRecording {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private WalletRecording() {
+    }
+
+    /**
+     * Returns a client that sends requests through {@code client} and writes
+     * every exchange to {@code file}, replacing its content. Each exchange is
+     * written as soon as it completes.
+     */
+    public static WalletClient record(WalletClient client, Path file) {
+        try {
+            Files.write(file, new byte[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create recording " + file, e);
+        }
+        WalletTransport delegate = client.getTransport();
+        Object lock = new Object();
+        return new WalletClient(client.getBaseUrl(), (method, path, contentType, body) -> {
+            WalletTransport.Response response = delegate.send(method, path, contentType, body);
+            byte[] line = line(new RecordedExchange(method, WalletRequestEvent.endpoint(path), body,
+                    response.status(), response.body()));
+            synchronized (lock) {
+                Files.write(file, line, StandardOpenOption.APPEND);
+            }
+            return response;
+        });
+    }
+
+    /**
+     * Returns a client that answers every request from the recording in
+     * {@code file}. Requests that were never recorded fail with a
+     * {@link WalletClientException}.
+     */
+    public static WalletClient replay(Path file) {
+        Map<String, List<WalletTransport.Response>> responses = new LinkedHashMap<>();
+        try (Stream<String> lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.filter(line -> !line.isBlank()).map(WalletRecording::parse).forEach(exchange ->
+                    responses.computeIfAbsent(key(exchange.method(), exchange.path()), key -> new ArrayList<>())
+                            .add(new WalletTransport.Response(exchange.status(), exchange.response())));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read recording " + file, e);
+        }
+
+        Map<String, AtomicInteger> positions = new LinkedHashMap<>();
+        responses.keySet().forEach(key -> positions.put(key, new AtomicInteger()));
+        return new WalletClient("replay:" + file, (method, path, contentType, body) -> {
+            String key = key(method, path);
+            List<WalletTransport.Response> recorded = responses.get(key);
+            if (recorded == null) {
+                throw new WalletClientException("No recorded response for " + key + " in " + file);
+            }
+            return recorded.get(Math.floorMod(positions.get(key).getAndIncrement(), recorded.size()));
+        });
+    }
+
+    private static String key(String method, String path) {
+        return method + " " + WalletRequestEvent.endpoint(path);
+    }
+
+    private static byte[] line(RecordedExchange exchange) {
+        try {
+            return (MAPPER.writeValueAsString(exchange) + "\n").getBytes(StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize exchange " + exchange.method() + " "
+                    + exchange.path(), e);
+        }
+    }
+
+    private static RecordedExchange parse(String line) {
+        try {
+            return MAPPER.readValue(line, RecordedExchange.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed recording line: " + line, e);
+        }
+    }
+
+    record RecordedExchange(String method, String path, String body, int status, String response) {
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.testcontainers.lifecycle.Startable;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Shares identically configured wallets between test classes in one JVM.
+ *
+ * <p>{@link #acquire(Oid4vcContainer)} looks up a running container by
+ * {@link Oid4vcContainer#configurationKey()} and only starts the given one if
+ * there is none. Callers must use {@link Lease#container()} rather than the
+ * container they passed in. Each lease holds a reference; the container is
+ * stopped when the last one is closed, or after the {@link #linger(Duration)}
+ * time if nobody acquires it again in between.
+ *
+ * <p>Lingering containers that are still running when the JVM exits are
+ * removed by the Testcontainers resource reaper.
+ */
+public final class WalletRegistry {
+
+    private static final WalletRegistry SHARED = new WalletRegistry();
+
+    private final Map<String, Entry<?>> entries = new HashMap<>();
+    private final LongAdder started = new LongAdder();
+    private final LongAdder startsAvoided = new LongAdder();
+    private final LongAdder stopped = new LongAdder();
+    private Duration linger = Duration.ZERO;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Returns the registry shared by all test classes of this JVM.
+     */
+    public static WalletRegistry shared() {
+        return SHARED;
+    }
+
+    public synchronized WalletRegistry linger(Duration linger) {
+        if (linger.isNegative()) {
+            throw new IllegalArgumentException("Linger time must not be negative: " + linger);
+        }
+        this.linger = linger;
+        return this;
+    }
+
+    public Lease<Oid4vcContainer> acquire(Oid4vcContainer container) {
+        return acquire(container.configurationKey(), container);
+    }
+
+    <T extends Startable> Lease<T> acquire(String key, T startable) {
+        Entry<T> entry;
+        synchronized (this) {
+            @SuppressWarnings("unchecked")
+            Entry<T> existing = (Entry<T>) entries.computeIfAbsent(key, k -> new Entry<>(k, startable));
+            entry = existing;
+            entry.references++;
+            if (entry.pendingStop != null) {
+                entry.pendingStop.cancel(false);
+                entry.pendingStop = null;
+            }
+        }
+        try {
+            entry.ensureStarted();
+        } catch (RuntimeException e) {
+            release(entry);
+            throw e;
+        }
+        return new Lease<>(this, entry);
+    }
+
+    public synchronized Stats stats() {
+        int running = (int) entries.values().stream().filter(entry -> entry.started).count();
+        return new Stats(started.sum(), startsAvoided.sum(), stopped.sum(), running);
+    }
+
+    private void release(Entry<?> entry) {
+        synchronized (this) {
+            entry.references--;
+            if (entry.references > 0 || entries.get(entry.key) != entry) {
+                return;
+            }
+            if (!linger.isZero()) {
+                entry.pendingStop = scheduler().schedule(() -> expire(entry), linger.toNanos(), TimeUnit.NANOSECONDS);
+                return;
+            }
+            entries.remove(entry.key);
+        }
+        entry.stop();
+    }
+
+    private void expire(Entry<?> entry) {
+        synchronized (this) {
+            if (entry.references > 0 || entries.get(entry.key) != entry) {
+                return;
+            }
+            entries.remove(entry.key);
+            entry.pendingStop = null;
+        }
+        entry.stop();
+    }
+
+    private ScheduledExecutorService scheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(
+                    Thread.ofPlatform().name("oid4vc-wallet-registry").daemon().factory());
+        }
+        return scheduler;
+    }
+
+    /**
+     * Counts over the registry's lifetime; {@code running} is the number of
+     * containers currently started, including lingering ones.
+     */
+    public record Stats(long started, long startsAvoided, long stopped, int running) {
+    }
+
+    public static final class Lease<T extends Startable> implements AutoCloseable {
+
+        private final WalletRegistry registry;
+        private final Entry<T> entry;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(WalletRegistry registry, Entry<T> entry) {
+            this.registry = registry;
+            this.entry = entry;
+        }
+
+        public T container() {
+            return entry.startable;
+        }
+
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                registry.release(entry);
+            }
+        }
+    }
+
+    private final class Entry<T extends Startable> {
+
+        private final String key;
+        private final T startable;
+        private int references;
+        private ScheduledFuture<?> pendingStop;
+        private volatile boolean started;
+
+        private Entry(String key, T startable) {
+            this.key = key;
+            this.startable = startable;
+        }
+
+        // later acquirers wait here while the first one starts the container
+        private synchronized void ensureStarted() {
+            if (started) {
+                startsAvoided.increment();
+                return;
+            }
+            startable.start();
+            started = true;
+            WalletRegistry.this.started.increment();
+        }
+
+        private synchronized void stop() {
+            if (started) {
+                startable.stop();
+                started = false;
+                stopped.increment();
+            }
+        }
+    }
+}
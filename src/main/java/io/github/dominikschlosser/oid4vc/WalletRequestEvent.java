@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one {@link WalletClient} request. Field values are only
+ * computed when the event is enabled and above its threshold.
+ */
+@Name("io.github.dominikschlosser.oid4vc.WalletRequest")
+@Label("Wallet Request")
+@Description("HTTP request from WalletClient to the wallet REST API")
+@Category({"OID4VC", "Wallet"})
+@StackTrace(false)
+final class WalletRequestEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    @Description("Request path with credential IDs replaced by {id}")
+    String endpoint;
+
+    @Label("Base URL")
+    String baseUrl;
+
+    @Label("Status")
+    @Description("HTTP status, or -1 if no response was received")
+    int status;
+
+    @Label("Request Size")
+    @DataAmount
+    long requestBytes;
+
+    @Label("Response Size")
+    @DataAmount
+    long responseBytes;
+
+    static String endpoint(String path) {
+        if (path.startsWith("/api/credentials/")) {
+            int idEnd = path.indexOf('/', "/api/credentials/".length());
+            return "/api/credentials/{id}" + (idEnd < 0 ? "" : path.substring(idEnd));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+/**
+ * Carries one {@link WalletClient} request to the wallet. {@code path} is
+ * relative to the wallet's base URL; {@code contentType} and {@code body} may
+ * be {@code null}.
+ */
+@FunctionalInterface
+interface WalletTransport {
+
+    Response send(String method, String path, String contentType, String body)
+            throws IOException, InterruptedException;
+
+    record Response(int status, String body) {
+    }
+
+    static WalletTransport http(String baseUrl) {
+        HttpClient httpClient = HttpClient.newHttpClient();
+        return (method, path, contentType, body) -> {
+            HttpRequest.Builder request = HttpRequest.newBuilder()
+                    .uri(URI.create(baseUrl + path))
+                    .method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(body));
+            if (contentType != null) {
+                request.header("Content-Type", contentType);
+            }
+            HttpResponse<String> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+            return new Response(response.statusCode(), response.body());
+        };
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
+import com.nimbusds.jose.jwk.RSAKey;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.SecureRandom;
+import java.security.Signature;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+
+/**
+ * Issues self-signed X.509 certificates for signing keys, so stubs and
+ * builders can ship a certificate chain ({@code x5c}, {@code x5chain}) with
+ * what they sign. The DER is assembled by hand to avoid a BouncyCastle
+ * dependency; only what RFC 5280 requires plus a DNS subject alternative
+ * name is written.
+ */
+final class X509Support {
+
+    private static final byte[] ED25519_PKCS8_PREFIX = HexFormat.of().parseHex("302e020100300506032b657004220420");
+    private static final DateTimeFormatter UTC_TIME =
+            DateTimeFormatter.ofPattern("yyMMddHHmmss'Z'").withZone(ZoneOffset.UTC);
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private X509Support() {
+    }
+
+    /**
+     * Returns a certificate for {@code key} with subject {@code CN=<dnsName>}
+     * and {@code dnsName} as subject alternative name, valid from one hour ago
+     * for {@code validity}. Supports EC (P-256, P-384, P-521), RSA and
+     * Ed25519 keys.
+     */
+    static X509Certificate selfSigned(JWK key, String dnsName, Duration validity) {
+        if (!key.isPrivate()) {
+            throw new IllegalArgumentException("Self-signing needs a private key");
+        }
+        try {
+            SignatureAlgorithm algorithm = SignatureAlgorithm.of(key);
+            byte[] name = sequence(set(sequence(oid("2.5.4.3"), tlv(0x0c, dnsName.getBytes(StandardCharsets.UTF_8)))));
+            Instant now = Instant.now();
+            byte[] tbs = sequence(
+                    tlv(0xa0, integer(BigInteger.TWO)),
+                    integer(new BigInteger(127, RANDOM).setBit(126)),
+                    algorithm.identifier,
+                    name,
+                    sequence(utcTime(now.minus(Duration.ofHours(1))), utcTime(now.plus(validity))),
+                    name,
+                    key.toPublicJWK() instanceof OctetKeyPair okp
+                            ? sequence(sequence(oid("1.3.101.112")), bitString(okp.getDecodedX()))
+                            : publicKeyInfo(key),
+                    tlv(0xa3, sequence(sequence(oid("2.5.29.17"),
+                            tlv(0x04, sequence(tlv(0x82, dnsName.getBytes(StandardCharsets.US_ASCII))))))));
+
+            Signature signature = Signature.getInstance(algorithm.jcaName);
+            signature.initSign(privateKey(key));
+            signature.update(tbs);
+            byte[] certificate = sequence(tbs, algorithm.identifier, bitString(signature.sign()));
+            return (X509Certificate) CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(certificate));
+        } catch (GeneralSecurityException | JOSEException e) {
+            throw new IllegalStateException("Failed to create self-signed certificate for " + dnsName, e);
+        }
+    }
+
+    private static byte[] publicKeyInfo(JWK key) throws JOSEException {
+        if (key instanceof ECKey ecKey) {
+            return ecKey.toECPublicKey().getEncoded();
+        }
+        return ((RSAKey) key).toRSAPublicKey().getEncoded();
+    }
+
+    private static PrivateKey privateKey(JWK key) throws JOSEException, GeneralSecurityException {
+        if (key instanceof ECKey ecKey) {
+            return ecKey.toECPrivateKey();
+        } else if (key instanceof RSAKey rsaKey) {
+            return rsaKey.toRSAPrivateKey();
+        }
+        byte[] d = ((OctetKeyPair) key).getDecodedD();
+        byte[] pkcs8 = new byte[ED25519_PKCS8_PREFIX.length + d.length];
+        System.arraycopy(ED25519_PKCS8_PREFIX, 0, pkcs8, 0, ED25519_PKCS8_PREFIX.length);
+        System.arraycopy(d, 0, pkcs8, ED25519_PKCS8_PREFIX.length, d.length);
+        return KeyFactory.getInstance("Ed25519").generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
+    }
+
+    private record SignatureAlgorithm(String jcaName, byte[] identifier) {
+
+        static SignatureAlgorithm of(JWK key) {
+            if (key instanceof ECKey ecKey) {
+                Curve curve = ecKey.getCurve();
+                if (Curve.P_256.equals(curve)) {
+                    return new SignatureAlgorithm("SHA256withECDSA", sequence(oid("1.2.840.10045.4.3.2")));
+                } else if (Curve.P_384.equals(curve)) {
+                    return new SignatureAlgorithm("SHA384withECDSA", sequence(oid("1.2.840.10045.4.3.3")));
+                } else if (Curve.P_521.equals(curve)) {
+                    return new SignatureAlgorithm("SHA512withECDSA", sequence(oid("1.2.840.10045.4.3.4")));
+                }
+            } else if (key instanceof RSAKey) {
+                return new SignatureAlgorithm("SHA256withRSA",
+                        sequence(oid("1.2.840.113549.1.1.11"), new byte[] {0x05, 0x00}));
+            } else if (key instanceof OctetKeyPair okp && Curve.Ed25519.equals(okp.getCurve())) {
+                return new SignatureAlgorithm("Ed25519", sequence(oid("1.3.101.112")));
+            }
+            throw new IllegalArgumentException("No certificate signature algorithm for " + key.getKeyType() + " key");
+        }
+    }
+
+    private static byte[] sequence(byte[]... parts) {
+        return tlv(0x30, parts);
+    }
+
+    private static byte[] set(byte[]... parts) {
+        return tlv(0x31, parts);
+    }
+
+    private static byte[] integer(BigInteger value) {
+        return tlv(0x02, value.toByteArray());
+    }
+
+    private static byte[] bitString(byte[] bits) {
+        return tlv(0x03, new byte[] {0}, bits);
+    }
+
+    private static byte[] utcTime(Instant instant) {
+        return tlv(0x17, UTC_TIME.format(instant).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] oid(String dotted) {
+        String[] arcs = dotted.split("\\.");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(Integer.parseInt(arcs[0]) * 40 + Integer.parseInt(arcs[1]));
+        for (int i = 2; i < arcs.length; i++) {
+            long arc = Long.parseLong(arcs[i]);
+            int groups = Math.max(1, (64 - Long.numberOfLeadingZeros(arc) + 6) / 7);
+            for (int group = groups - 1; group >= 0; group--) {
+                out.write((int) ((arc >>> (7 * group)) & 0x7f) | (group > 0 ? 0x80 : 0));
+            }
+        }
+        return tlv(0x06, out.toByteArray());
+    }
+
+    private static byte[] tlv(int tag, byte[]... parts) {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (byte[] part : parts) {
+            content.writeBytes(part);
+        }
+        int length = content.size();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(length + 6);
+        out.write(tag);
+        if (length < 0x80) {
+            out.write(length);
+        } else {
+            int bytes = (32 - Integer.numberOfLeadingZeros(length) + 7) / 8;
+            out.write(0x80 | bytes);
+            for (int i = bytes - 1; i >= 0; i--) {
+                out.write(length >>> (8 * i));
+            }
+        }
+        out.writeBytes(content.toByteArray());
+        return out.toByteArray();
+    }
+}
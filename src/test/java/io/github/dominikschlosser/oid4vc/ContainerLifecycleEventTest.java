@@ -0,0 +1,76 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.github.dockerjava.api.command.InspectContainerResponse;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContainerLifecycleEventTest {
+
+    private static final String EVENT_NAME = "io.github.dominikschlosser.oid4vc.ContainerLifecycle";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void stoppingUnstartedContainerNeedsNoDockerAndRecordsNothing() throws Exception {
+        Path file = dir.resolve("lifecycle.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT_NAME);
+            recording.start();
+
+            new Oid4vcContainer().stop();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertThat(RecordingFile.readAllEvents(file))
+                .noneMatch(e -> e.getEventType().getName().equals(EVENT_NAME));
+    }
+
+    @Test
+    void startPhaseBeginsAfterConfigure() throws Exception {
+        Path file = dir.resolve("phases.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(EVENT_NAME);
+            recording.start();
+
+            Oid4vcContainer container = new Oid4vcContainer();
+            container.configure();
+            container.containerIsStarting(new InspectContainerResponse(), false);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, RecordedEvent> phases = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(EVENT_NAME))
+                .collect(Collectors.toMap(e -> e.getString("phase"), e -> e));
+        assertThat(phases).containsOnlyKeys("configure", "start");
+        assertThat(phases.get("start").getStartTime()).isAfterOrEqualTo(phases.get("configure").getEndTime());
+    }
+}
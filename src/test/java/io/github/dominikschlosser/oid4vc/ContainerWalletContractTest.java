@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ContainerWalletContractTest extends WalletContractTest {
+
+    @Container
+    static Oid4vcContainer wallet = new Oid4vcContainer("ghcr.io/dominikschlosser/oid4vc-dev:v0.14.2")
+            .withStatusList()
+            .withHostAccess();
+
+    @Override
+    protected WalletClient client() {
+        return wallet.client();
+    }
+
+    @Test
+    void presentsToStubVerifierOnTheHost() {
+        try (StubVerifier verifier = new StubVerifier().vct("urn:eu.europa.ec.eudi:pid:1").start()) {
+            wallet.client().acceptPresentationRequest(verifier.createRequestUri());
+
+            assertThat(verifier.requestsFetched()).isOne();
+            assertThat(verifier.presentationsVerified()).isOne();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddedWalletContractTest extends WalletContractTest {
+
+    static EmbeddedWallet wallet;
+
+    @BeforeAll
+    static void startWallet() {
+        wallet = new EmbeddedWallet().withStatusList().start();
+    }
+
+    @AfterAll
+    static void stopWallet() {
+        wallet.stop();
+    }
+
+    @Override
+    protected WalletClient client() {
+        return wallet.client();
+    }
+
+    @Test
+    void presentsPidWithKeyBinding() {
+        String dcql = "{\"credentials\":[{\"id\":\"pid\",\"format\":\"dc+sd-jwt\","
+                + "\"meta\":{\"vct_values\":[\"urn:eu.europa.ec.eudi:pid:1\"]}}]}";
+
+        wallet.acceptPresentationRequest(presentationRequest(dcql));
+
+        VerifiedSdJwt verified = new SdJwtVerifier(wallet.getIssuerKey()).verify(presented("pid"));
+        assertThat(verified.vct()).isEqualTo("urn:eu.europa.ec.eudi:pid:1");
+        assertThat(verified.claim("family_name")).isEqualTo("MUSTERMANN");
+        assertThat(verified.keyBinding()).containsEntry("nonce", "nonce-1");
+    }
+
+    @Test
+    void presentationWithoutMatchingCredentialFails() {
+        String dcql = "{\"credentials\":[{\"id\":\"x\",\"meta\":{\"vct_values\":[\"urn:nonexistent\"]}}]}";
+
+        assertThatThrownBy(() -> wallet.acceptPresentationRequest(presentationRequest(dcql)))
+                .isInstanceOf(WalletClientException.class)
+                .hasMessageContaining("400");
+    }
+
+    @Test
+    void credentialOfferWithoutGrantIsMintedLocally() {
+        String offer = "{\"credential_issuer\":\"https://issuer.example.com\","
+                + "\"credential_configuration_ids\":[\"urn:test:offered:1\"]}";
+
+        wallet.acceptCredentialOffer("openid-credential-offer://?credential_offer="
+                + URLEncoder.encode(offer, StandardCharsets.UTF_8));
+
+        assertThat(client().hasCredentialWithType("urn:test:offered:1")).isTrue();
+        client().deleteCredentialsByType("urn:test:offered:1");
+    }
+
+    @Test
+    void importsMdoc() {
+        String mdoc = new MdocCredentialBuilder()
+                .docType("org.example.contract.1")
+                .claim("given_name", "Jane")
+                .build();
+
+        client().importCredential(mdoc);
+
+        Credential imported = client().getCredentialsByType("org.example.contract.1").getFirst();
+        assertThat(imported.format()).isEqualTo(CredentialFormat.MSO_MDOC);
+        assertThat(imported.claims()).containsEntry("given_name", "Jane");
+        client().deleteCredential(imported.id());
+    }
+
+    @Test
+    void rejectsGarbageCredential() {
+        assertThatThrownBy(() -> client().importCredential("not a credential"))
+                .isInstanceOf(WalletClientException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void statusListUsesTwoBitsPerCredential() {
+        Map<String, Object> statusList = (Map<String, Object>) payload(client().getStatusList()).get("status_list");
+
+        assertThat(statusList).containsEntry("bits", 2).containsKey("lst");
+    }
+
+    @Test
+    void customPidClaimsReplaceDefault() {
+        try (EmbeddedWallet custom = new EmbeddedWallet()
+                .withPidClaims("{\"given_name\":\"MAX\",\"family_name\":\"POWER\"}")
+                .start()) {
+            List<Credential> credentials = custom.listCredentials();
+
+            assertThat(credentials).singleElement()
+                    .satisfies(c -> assertThat(c.claims()).containsEntry("given_name", "MAX"));
+            assertThatThrownBy(() -> custom.client().getStatusList()).isInstanceOf(WalletClientException.class);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FaultInjectingProxyTest {
+
+    private EmbeddedWallet wallet;
+    private FaultInjectingProxy proxy;
+
+    @BeforeEach
+    void startWallet() {
+        wallet = new EmbeddedWallet().start();
+        proxy = new FaultInjectingProxy(wallet.getBaseUrl()).seed(7);
+    }
+
+    @AfterEach
+    void stopWallet() {
+        proxy.stop();
+        wallet.stop();
+    }
+
+    @Test
+    void forwardsUnmatchedRequests() {
+        proxy.inject("/api/trustlist", new FaultProfile().serverErrorRate(1)).start();
+        WalletClient client = proxy.client();
+
+        client.importCredential(new SdJwtCredentialBuilder().vct("urn:test:proxy:1").claim("n", "1").build());
+
+        assertThat(client.getCredentials()).hasSize(2);
+        assertThat(proxy.count(FaultInjectingProxy.Fault.NONE)).isEqualTo(2);
+    }
+
+    @Test
+    void injectsServerErrorsOnMatchingMethodOnly() {
+        proxy.inject("POST /api/credentials", new FaultProfile().serverErrorRate(1).serverErrorStatus(502)).start();
+        WalletClient client = proxy.client();
+
+        assertThat(client.getCredentials()).isNotEmpty();
+        assertThatThrownBy(() -> client.importCredential("irrelevant"))
+                .isInstanceOf(WalletClientException.class)
+                .satisfies(e -> assertThat(((WalletClientException) e).getStatusCode()).isEqualTo(502));
+    }
+
+    @Test
+    void resetsAndTruncatesConnections() {
+        proxy.inject("/api/credentials", new FaultProfile().resetRate(1))
+                .inject("/api/trustlist", new FaultProfile().truncateRate(1))
+                .start();
+        WalletClient client = proxy.client();
+
+        assertThatThrownBy(client::getCredentials).isInstanceOf(WalletClientException.class);
+        assertThatThrownBy(client::getTrustList).isInstanceOf(WalletClientException.class);
+        // the JDK client retries idempotent requests once after a reset
+        assertThat(proxy.count(FaultInjectingProxy.Fault.RESET)).isPositive();
+        assertThat(proxy.count(FaultInjectingProxy.Fault.TRUNCATE)).isPositive();
+    }
+
+    @Test
+    void delaysResponses() {
+        proxy.inject("/api/credentials", new FaultProfile().latency(LatencyDistribution.fixed(Duration.ofMillis(200))))
+                .start();
+
+        long start = System.nanoTime();
+        proxy.client().getCredentials();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(200));
+    }
+
+    @Test
+    void scheduledRuleIsInactiveOutsideItsWindow() {
+        proxy.inject("/api/credentials", Duration.ofHours(1), null, new FaultProfile().serverErrorRate(1)).start();
+
+        assertThat(proxy.client().getCredentials()).isNotEmpty();
+    }
+
+    @Test
+    void sameSeedReplaysSameDecisions() {
+        FaultProfile profile = new FaultProfile()
+                .latency(LatencyDistribution.logNormal(Duration.ofMillis(50), 0.8))
+                .resetRate(0.1)
+                .truncateRate(0.1)
+                .serverErrorRate(0.2);
+        FaultInjectingProxy first = new FaultInjectingProxy("http://127.0.0.1:1").seed(42).inject("/", profile);
+        FaultInjectingProxy second = new FaultInjectingProxy("http://127.0.0.1:1").seed(42).inject("/", profile);
+        FaultInjectingProxy other = new FaultInjectingProxy("http://127.0.0.1:1").seed(43).inject("/", profile);
+
+        List<FaultInjectingProxy.Decision> decisions = decisions(first);
+
+        assertThat(decisions(second)).isEqualTo(decisions);
+        assertThat(decisions(other)).isNotEqualTo(decisions);
+        assertThat(decisions).extracting(FaultInjectingProxy.Decision::fault)
+                .contains(FaultInjectingProxy.Fault.NONE, FaultInjectingProxy.Fault.SERVER_ERROR);
+    }
+
+    @Test
+    void rejectsRatesAboveOne() {
+        assertThatThrownBy(() -> new FaultProfile().resetRate(1.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FaultProfile().resetRate(0.6).truncateRate(0.3).serverErrorRate(0.2))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("more than 1");
+    }
+
+    @Test
+    void answersMalformedRequestsWithBadRequest() throws Exception {
+        proxy.start();
+        URI uri = URI.create(proxy.getBaseUrl());
+
+        for (String request : List.of("GARBAGE\r\n\r\n", "GET /api/credentials HTTP/1.1\r\nno colon\r\n\r\n",
+                "POST /api/credentials HTTP/1.1\r\nContent-Length: many\r\n\r\n")) {
+            try (Socket socket = new Socket(uri.getHost(), uri.getPort())) {
+                socket.getOutputStream().write(request.getBytes(StandardCharsets.US_ASCII));
+                String response = new String(socket.getInputStream().readAllBytes(), StandardCharsets.US_ASCII);
+
+                assertThat(response).startsWith("HTTP/1.1 400");
+            }
+        }
+    }
+
+    private static List<FaultInjectingProxy.Decision> decisions(FaultInjectingProxy proxy) {
+        List<FaultInjectingProxy.Decision> decisions = new ArrayList<>();
+        for (long i = 0; i < 100; i++) {
+            decisions.add(proxy.decide(i, "GET", "/api/credentials", 0));
+        }
+        return decisions;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.jwk.ECKey;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FixtureCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    @Test
+    void signingKeyIsPersistedAcrossInstances() {
+        ECKey first = new FixtureCache(cacheDir).signingKey("issuer");
+        ECKey second = new FixtureCache(cacheDir).signingKey("issuer");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(second.isPrivate()).isTrue();
+        assertThat(new FixtureCache(cacheDir).signingKey("other")).isNotEqualTo(first);
+    }
+
+    @Test
+    void identicalInputsReuseCachedCredential() {
+        FixtureCache cache = new FixtureCache(cacheDir);
+        String first = builder(cache).build();
+
+        FixtureCache warmCache = new FixtureCache(cacheDir);
+        String second = builder(warmCache).build();
+
+        assertThat(second).isEqualTo(first);
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(warmCache.hits()).isEqualTo(1);
+        assertThat(warmCache.misses()).isZero();
+    }
+
+    @Test
+    void differentInputsMissTheCache() {
+        FixtureCache cache = new FixtureCache(cacheDir);
+        String first = builder(cache).build();
+        String second = builder(cache).claim("given_name", "Max").build();
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(cache.misses()).isEqualTo(2);
+    }
+
+    @Test
+    void credentialsPastHalfTheirTtlAreReminted() {
+        FixtureCache cache = new FixtureCache(cacheDir);
+        String first = builder(cache).ttl(Duration.ZERO).build();
+        String second = builder(cache).ttl(Duration.ZERO).build();
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(cache.hits()).isZero();
+    }
+
+    private static SdJwtCredentialBuilder builder(FixtureCache cache) {
+        return new SdJwtCredentialBuilder(cache.signingKey("issuer"))
+                .cache(cache)
+                .vct("urn:example:cached:1")
+                .claim("given_name", "Jane")
+                .objectClaim("address", Map.of("city", "Berlin", "street", "Main St"));
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IssuanceLoadDriverTest {
+
+    private HttpServer server;
+    private final List<String> credentialIds = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void startStubWallet() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/offers", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            if (body.contains("slow")) {
+                sleep(Duration.ofMillis(200));
+            }
+            // offers marked "silent" succeed without storing a credential
+            if (!body.contains("silent")) {
+                credentialIds.add("cred-" + credentialIds.size());
+            }
+            respond(exchange, "{}");
+        });
+        server.createContext("/api/credentials", exchange -> {
+            StringBuilder json = new StringBuilder("[");
+            for (String id : credentialIds) {
+                if (json.length() > 1) {
+                    json.append(',');
+                }
+                json.append("{\"id\":\"").append(id).append("\",\"format\":\"dc+sd-jwt\",\"vct\":\"urn:test\"}");
+            }
+            respond(exchange, json.append(']').toString());
+        });
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubWallet() {
+        server.stop(0);
+    }
+
+    @Test
+    void verifiesEachRedemptionProducedACredential() {
+        credentialIds.add("preloaded");
+        WalletClient client = new WalletClient("http://127.0.0.1:" + server.getAddress().getPort());
+
+        LoadReport report = new IssuanceLoadDriver(() -> "openid-credential-offer://ok", client)
+                .offers(10)
+                .verifyIssued()
+                .run();
+
+        assertThat(report.successes()).isEqualTo(10);
+        assertThat(credentialIds).hasSize(11);
+    }
+
+    @Test
+    void reportsRedemptionsWithoutNewCredential() {
+        WalletClient client = new WalletClient("http://127.0.0.1:" + server.getAddress().getPort());
+
+        LoadReport report = new IssuanceLoadDriver(() -> "openid-credential-offer://silent", client)
+                .offers(3)
+                .verifyIssued()
+                .run();
+
+        assertThat(report.failures()).isEqualTo(3);
+        assertThat(report.errors()).containsEntry("MissingCredentialException", 3L);
+    }
+
+    @Test
+    void openLoopRunIsNotCappedAtOneRedemptionInFlight() {
+        WalletClient client = new WalletClient("http://127.0.0.1:" + server.getAddress().getPort());
+
+        LoadReport report = new IssuanceLoadDriver(() -> "openid-credential-offer://slow", client)
+                .ratePerSecond(50)
+                .offers(10)
+                .run();
+
+        // one worker would need 10 x 200 ms; on schedule the run takes ~180 + 200 ms
+        assertThat(report.successes()).isEqualTo(10);
+        assertThat(report.elapsed()).isLessThan(Duration.ofMillis(1_500));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
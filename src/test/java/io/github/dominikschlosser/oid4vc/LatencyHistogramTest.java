@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void percentilesAreWithinOnePercent() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000);
+        }
+
+        assertThat(histogram.count()).isEqualTo(10_000);
+        assertThat(histogram.valueAtPercentile(50).toNanos()).isCloseTo(5_000_000L, within(50_000L));
+        assertThat(histogram.valueAtPercentile(99).toNanos()).isCloseTo(9_900_000L, within(99_000L));
+        assertThat(histogram.valueAtPercentile(100)).isEqualTo(Duration.ofMillis(10));
+        assertThat(histogram.min()).isEqualTo(Duration.ofNanos(1_000));
+    }
+
+    @Test
+    void reportedValueIsWithinOnePercentAtEveryMagnitude() {
+        for (long value = 129; value < Long.MAX_VALUE / 3; value = value * 3 + 1) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE / 2);
+
+            long reported = histogram.valueAtPercentile(50).toNanos();
+            assertThat(reported).isBetween(value, value + value / 100);
+        }
+    }
+
+    @Test
+    void correctedRecordingBackfillsMissedSamples() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        histogram.recordCorrected(100, 10);
+
+        // 100, 90, 80, ..., 10
+        assertThat(histogram.count()).isEqualTo(10);
+        assertThat(histogram.valueAtPercentile(50).toNanos()).isEqualTo(50);
+    }
+
+    @Test
+    void addMergesCounts() {
+        LatencyHistogram first = new LatencyHistogram();
+        LatencyHistogram second = new LatencyHistogram();
+        first.record(10);
+        second.record(1_000_000);
+
+        first.add(second);
+
+        assertThat(first.count()).isEqualTo(2);
+        assertThat(first.max()).isEqualTo(Duration.ofMillis(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportsJsonAndCsv() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5);
+        histogram.record(5);
+        histogram.record(7);
+
+        Map<String, Object> json = new ObjectMapper().readValue(histogram.toJson(), Map.class);
+        assertThat(json).containsEntry("count", 3);
+        assertThat((Map<String, Object>) json.get("percentiles")).containsEntry("50", 5).containsEntry("99.9", 7);
+
+        assertThat(histogram.toCsv().split("\n"))
+                .containsExactly("value_ns,percentile,total_count", "5,66.666667,2", "7,100.000000,3");
+    }
+
+    @Test
+    void openLoopLatencyIncludesQueueingBehindAStall() {
+        AtomicBoolean stalled = new AtomicBoolean();
+        WalletClient unused = new WalletClient("http://127.0.0.1:1");
+
+        LoadReport report = new OpenLoopScheduler(100)
+                .maxInFlight(1)
+                .operations(20)
+                .run(client -> {
+                    if (stalled.compareAndSet(false, true)) {
+                        sleep(Duration.ofMillis(200));
+                    }
+                }, unused);
+
+        assertThat(report.operations()).isEqualTo(20);
+        // the requests scheduled during the stall waited up to ~190ms to start
+        assertThat(report.latencyAtPercentile(90)).isGreaterThan(Duration.ofMillis(50));
+        assertThat(report.serviceTimes().valueAtPercentile(90)).isLessThan(Duration.ofMillis(50));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jose.util.X509CertUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MdocCredentialBuilderTest {
+
+    private static final CBORMapper CBOR = new CBORMapper();
+    private static final String PID = "eu.europa.ec.eudi.pid.1";
+
+    @Test
+    void buildsIssuerSignedWithItemsPerNamespace() throws Exception {
+        byte[] encoded = builder().buildBytes();
+        JsonNode issuerSigned = CBOR.readTree(encoded);
+
+        assertThat(encoded[0] & 0xff).as("definite-length map of 2").isEqualTo(0xa2);
+
+        Map<String, JsonNode> elements = elements(issuerSigned, PID);
+        assertThat(elements.get("given_name").asText()).isEqualTo("Jane");
+        assertThat(elements.get("age_over_18").asBoolean()).isTrue();
+        assertThat(elements.get("birth_date").asText()).isEqualTo("1990-01-15");
+        assertThat(elements(issuerSigned, "org.example.extra").get("member_id").asText()).isEqualTo("42");
+    }
+
+    @Test
+    void msoDigestsMatchItemsAndSignatureVerifies() throws Exception {
+        MdocCredentialBuilder builder = builder();
+        JsonNode issuerSigned = decode(builder.build());
+        JsonNode issuerAuth = issuerSigned.get("issuerAuth");
+        byte[] protectedHeader = issuerAuth.get(0).binaryValue();
+        byte[] msoBytes = issuerAuth.get(2).binaryValue();
+        JsonNode mso = CBOR.readTree(CBOR.readTree(msoBytes).binaryValue());
+
+        assertThat(CBOR.readTree(protectedHeader).get("1").asInt()).isEqualTo(-7);
+        assertThat(mso.get("docType").asText()).isEqualTo(PID);
+        assertThat(mso.get("digestAlgorithm").asText()).isEqualTo("SHA-256");
+        assertThat(mso.at("/deviceKeyInfo/deviceKey/1").asInt()).isEqualTo(2);
+
+        MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        for (JsonNode item : issuerSigned.at("/nameSpaces/" + PID)) {
+            byte[] itemBytes = item.binaryValue();
+            int digestId = CBOR.readTree(itemBytes).get("digestID").asInt();
+            byte[] expected = mso.at("/valueDigests/" + PID + "/" + digestId).binaryValue();
+            assertThat(sha256.digest(embedded(itemBytes))).isEqualTo(expected);
+        }
+
+        byte[] sigStructure = encode(gen -> {
+            gen.writeStartArray(null, 4);
+            gen.writeString("Signature1");
+            gen.writeBinary(protectedHeader);
+            gen.writeBinary(new byte[0]);
+            gen.writeBinary(msoBytes);
+            gen.writeEndArray();
+        });
+        boolean valid = JwsSupport.verifierFor(builder.getSigningJwk().toPublicJWK()).verify(
+                new JWSHeader(JWSAlgorithm.ES256), sigStructure, Base64URL.encode(issuerAuth.get(3).binaryValue()));
+        assertThat(valid).isTrue();
+    }
+
+    @Test
+    void ed25519SigningKeyUsesEdDsa() throws Exception {
+        MdocCredentialBuilder builder = new MdocCredentialBuilder(JwsSupport.generateKey(JWSAlgorithm.EdDSA))
+                .docType(PID)
+                .claim("given_name", "Jane");
+
+        JsonNode issuerAuth = decode(builder.build()).get("issuerAuth");
+
+        assertThat(CBOR.readTree(issuerAuth.get(0).binaryValue()).get("1").asInt()).isEqualTo(-8);
+        assertThat(issuerAuth.get(3).binaryValue()).hasSize(64);
+    }
+
+    @Test
+    void buildBatchAppliesOverridesInIndexOrder() throws Exception {
+        List<String> batch = builder().buildBatch(20, i -> Map.of("given_name", "Holder " + i));
+
+        assertThat(batch).hasSize(20).doesNotHaveDuplicates();
+        assertThat(elements(decode(batch.get(7)), PID).get("given_name").asText()).isEqualTo("Holder 7");
+    }
+
+    @Test
+    void issuerAuthCarriesSelfSignedCertificateThatVerifiesTheSignature() throws Exception {
+        MdocCredentialBuilder builder = builder();
+        JsonNode issuerAuth = decode(builder.build()).get("issuerAuth");
+
+        X509Certificate certificate = X509CertUtils.parse(issuerAuth.get(1).get("33").binaryValue());
+        assertThat(certificate).isEqualTo(builder.getIssuerCertificateChain().getFirst());
+        assertThat(certificate.getPublicKey()).isEqualTo(((ECKey) builder.getSigningJwk()).toECPublicKey());
+
+        byte[] sigStructure = encode(gen -> {
+            gen.writeStartArray(null, 4);
+            gen.writeString("Signature1");
+            gen.writeBinary(issuerAuth.get(0).binaryValue());
+            gen.writeBinary(new byte[0]);
+            gen.writeBinary(issuerAuth.get(2).binaryValue());
+            gen.writeEndArray();
+        });
+        Signature signature = Signature.getInstance("SHA256withECDSAinP1363Format");
+        signature.initVerify(certificate);
+        signature.update(sigStructure);
+        assertThat(signature.verify(issuerAuth.get(3).binaryValue())).isTrue();
+    }
+
+    @Test
+    void writesGivenCertificateChainAsArray() throws Exception {
+        JWK key = JwsSupport.generateKey(JWSAlgorithm.ES256);
+        X509Certificate leaf = X509Support.selfSigned(key, "issuer.example.com", Duration.ofDays(1));
+        X509Certificate root = X509Support.selfSigned(JwsSupport.generateKey(JWSAlgorithm.ES256),
+                "root.example.com", Duration.ofDays(1));
+
+        JsonNode x5chain = decode(new MdocCredentialBuilder(key)
+                .issuerCertificateChain(List.of(leaf, root))
+                .docType(PID)
+                .claim("given_name", "Jane")
+                .build()).at("/issuerAuth/1/33");
+
+        assertThat(x5chain).hasSize(2);
+        assertThat(x5chain.get(0).binaryValue()).isEqualTo(leaf.getEncoded());
+        assertThat(x5chain.get(1).binaryValue()).isEqualTo(root.getEncoded());
+    }
+
+    @Test
+    void importsIntoEmbeddedWallet() {
+        try (EmbeddedWallet wallet = new EmbeddedWallet().withoutDefaultPid().start()) {
+            wallet.client().importCredential(builder().build());
+
+            assertThat(wallet.listCredentials()).singleElement().satisfies(credential -> {
+                assertThat(credential.format()).isEqualTo(CredentialFormat.MSO_MDOC);
+                assertThat(credential.type()).isEqualTo(PID);
+                assertThat(credential.claims()).containsEntry("given_name", "Jane");
+            });
+        }
+    }
+
+    @Test
+    void requiresDocType() {
+        assertThatThrownBy(() -> new MdocCredentialBuilder().claim("org.example", "a", "b").build())
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private static MdocCredentialBuilder builder() {
+        return new MdocCredentialBuilder()
+                .docType(PID)
+                .claim("given_name", "Jane")
+                .claim("family_name", "Doe")
+                .claim("birth_date", LocalDate.of(1990, 1, 15))
+                .claim("age_over_18", true)
+                .claim("org.example.extra", "member_id", "42");
+    }
+
+    private static JsonNode decode(String credential) throws Exception {
+        return CBOR.readTree(Base64.getUrlDecoder().decode(credential));
+    }
+
+    private static Map<String, JsonNode> elements(JsonNode issuerSigned, String namespace) throws Exception {
+        Map<String, JsonNode> elements = new HashMap<>();
+        for (JsonNode item : issuerSigned.at("/nameSpaces/" + namespace)) {
+            JsonNode decoded = CBOR.readTree(item.binaryValue());
+            elements.put(decoded.get("elementIdentifier").asText(), decoded.get("elementValue"));
+        }
+        return elements;
+    }
+
+    private static byte[] embedded(byte[] item) throws Exception {
+        return encode(gen -> {
+            gen.writeTag(24);
+            gen.writeBinary(item);
+        });
+    }
+
+    private static byte[] encode(Writer writer) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CBORGenerator gen = new CBORFactory().createGenerator(out)) {
+            writer.write(gen);
+        }
+        return out.toByteArray();
+    }
+
+    private interface Writer {
+        void write(CBORGenerator gen) throws Exception;
+    }
+}
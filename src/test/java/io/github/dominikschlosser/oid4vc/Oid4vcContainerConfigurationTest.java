@@ -0,0 +1,102 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.Network;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Serve command and network URLs, checked without Docker
+class Oid4vcContainerConfigurationTest {
+
+    @Test
+    void defaultServeFlags() {
+        Oid4vcContainer wallet = new Oid4vcContainer();
+        wallet.configure();
+
+        assertThat(wallet.getCommandParts())
+                .containsExactly("wallet", "serve", "--port", "8085", "--auto-accept", "--pid");
+    }
+
+    @Test
+    void serveFlagsFollowOptions() {
+        Oid4vcContainer wallet = new Oid4vcContainer()
+                .withoutAutoAccept()
+                .withoutDefaultPid()
+                .withStatusList()
+                .withPreferredFormat(CredentialFormat.MSO_MDOC)
+                .withSessionTranscript("iso");
+        wallet.configure();
+
+        assertThat(wallet.getCommandParts()).containsExactly("wallet", "serve", "--port", "8085",
+                "--status-list", "--preferred-format", CredentialFormat.MSO_MDOC.getWireValue(),
+                "--session-transcript", "iso");
+    }
+
+    @Test
+    void sharedNetworkDefaultsStatusListBaseUrlToNetworkUrl() {
+        try (Network network = Network.newNetwork()) {
+            Oid4vcContainer wallet = new Oid4vcContainer().withSharedNetwork(network, "wallet").withStatusList();
+            wallet.configure();
+
+            assertThat(wallet.getNetworkBaseUrl()).isEqualTo("http://wallet:8085");
+            assertThat(wallet.getNetworkAuthorizeUrl()).isEqualTo("http://wallet:8085/authorize");
+            assertThat(wallet.getNetworkStatusListUrl()).isEqualTo("http://wallet:8085/api/statuslist");
+            assertThat(wallet.getCommandParts()).containsSequence("--status-list", "--base-url", "http://wallet:8085");
+        }
+    }
+
+    @Test
+    void explicitStatusListBaseUrlWinsOverNetworkUrl() {
+        try (Network network = Network.newNetwork()) {
+            Oid4vcContainer wallet = new Oid4vcContainer()
+                    .withSharedNetwork(network, "wallet")
+                    .withStatusList()
+                    .withStatusListBaseUrl("http://status.example.com");
+            wallet.configure();
+
+            assertThat(wallet.getCommandParts())
+                    .containsSequence("--base-url", "http://status.example.com")
+                    .doesNotContain("http://wallet:8085");
+        }
+    }
+
+    @Test
+    void customPidRunsServeInShell() {
+        Oid4vcContainer wallet = new Oid4vcContainer()
+                .withPidClaims("{\"given_name\":\"Jane\"}")
+                .withStatusList()
+                .withStatusListBaseUrl("http://status.example.com");
+        wallet.configure();
+
+        assertThat(wallet.getCommandParts()).singleElement().asString()
+                .startsWith("oid4vc-dev wallet generate-pid --claims ")
+                .endsWith(" && oid4vc-dev wallet serve --port 8085 --auto-accept --status-list"
+                        + " --base-url http://status.example.com");
+    }
+
+    @Test
+    void networkUrlsRequireSharedNetwork() {
+        Oid4vcContainer wallet = new Oid4vcContainer();
+
+        assertThatThrownBy(wallet::getNetworkBaseUrl)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("withSharedNetwork");
+        assertThatThrownBy(wallet::getNetworkStatusListUrl).isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -16,6 +16,7 @@
 package io.github.dominikschlosser.oid4vc;
 
 import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.Network;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
@@ -240,6 +241,20 @@ class Oid4vcContainerTest {
         }
     }
 
+    @Test
+    void withSharedNetworkUsesInNetworkUrls() {
+        try (Network network = Network.newNetwork();
+             Oid4vcContainer networkWallet = new Oid4vcContainer("ghcr.io/dominikschlosser/oid4vc-dev:v0.14.2")
+                     .withSharedNetwork(network, "wallet")
+                     .withStatusList()) {
+            networkWallet.start();
+
+            assertThat(networkWallet.getNetworkAuthorizeUrl()).isEqualTo("http://wallet:8085/authorize");
+            assertThat(networkWallet.getCommandParts()).containsSequence("--base-url", "http://wallet:8085");
+            assertThat(networkWallet.listCredentials()).isNotEmpty();
+        }
+    }
+
     @Test
     void importSdJwtCredentialWithObjectAndArrayClaims() {
         WalletClient client = wallet.client();
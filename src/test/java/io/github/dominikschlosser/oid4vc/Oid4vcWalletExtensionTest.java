@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class Oid4vcWalletExtensionTest {
+
+    @Test
+    @Order(1)
+    void injectsSameWalletForOneTest(@Oid4vcWallet EmbeddedWallet wallet,
+                                     @Oid4vcWallet(embedded = true) WalletClient client) {
+        assertThat(client).isSameAs(wallet.client());
+
+        client.importCredential(new SdJwtCredentialBuilder().vct("urn:test:extension:1").claim("n", "1").build());
+        client.setPreferredFormat(CredentialFormat.MSO_MDOC);
+        client.setNextError("access_denied", "denied");
+        assertThat(client.getCredentials()).hasSize(2);
+    }
+
+    @Test
+    @Order(2)
+    void resetsWalletBetweenTests(@Oid4vcWallet(embedded = true, exclusive = true) WalletClient client) {
+        assertThat(client.getCredentials()).singleElement()
+                .satisfies(c -> assertThat(c.type()).isEqualTo("urn:eu.europa.ec.eudi:pid:1"));
+    }
+
+    @Test
+    @Order(3)
+    void exclusiveOnAnyParameterLocksTheWholeTest(@Oid4vcWallet(embedded = true) WalletClient client,
+                                                  @Oid4vcWallet(exclusive = true) EmbeddedWallet wallet) {
+        assertThat(client).isSameAs(wallet.client());
+        assertThat(Oid4vcWalletExtension.LOCK.availablePermits()).isZero();
+    }
+
+    @Nested
+    @TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+    class ClassLevelInjection {
+
+        static EmbeddedWallet first;
+
+        private final EmbeddedWallet wallet;
+
+        ClassLevelInjection(@Oid4vcWallet EmbeddedWallet wallet) {
+            this.wallet = wallet;
+        }
+
+        @Test
+        @Order(1)
+        void holdsTheWalletForTheWholeClass(@Oid4vcWallet EmbeddedWallet parameter) {
+            first = wallet;
+            assertThat(parameter).isSameAs(wallet);
+            assertThat(Oid4vcWalletExtension.LOCK.availablePermits()).isEqualTo(Integer.MAX_VALUE - 1);
+        }
+
+        @Test
+        @Order(2)
+        void exclusiveTestUpgradesTheClassLock(@Oid4vcWallet(exclusive = true) EmbeddedWallet parameter) {
+            assertThat(wallet).isSameAs(first);
+            assertThat(parameter).isSameAs(wallet);
+            assertThat(Oid4vcWalletExtension.LOCK.availablePermits()).isZero();
+        }
+
+        @Test
+        @Order(3)
+        void releasesTheUpgradeAfterTheTest() {
+            assertThat(wallet).isSameAs(first);
+            assertThat(Oid4vcWalletExtension.LOCK.availablePermits()).isEqualTo(Integer.MAX_VALUE - 1);
+        }
+    }
+
+    @Test
+    void poolGrowsOnlyUnderConcurrentDemand() throws Exception {
+        WalletPool pool = new WalletPool(2, WalletPool::embedded);
+        try {
+            WalletPool.Lease first = pool.acquire();
+            first.close();
+            WalletPool.Lease second = pool.acquire();
+            assertThat(second.wallet()).isSameAs(first.wallet());
+            assertThat(pool.size()).isEqualTo(1);
+
+            WalletPool.Lease third = pool.acquire();
+            assertThat(third.wallet()).isNotSameAs(second.wallet());
+            assertThat(pool.size()).isEqualTo(2);
+            second.close();
+            third.close();
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void concurrentLeasesNeverShareAWallet() throws Exception {
+        WalletPool pool = new WalletPool(2, WalletPool::embedded);
+        try {
+            ExecutorService executor = Executors.newFixedThreadPool(4);
+            CountDownLatch start = new CountDownLatch(1);
+            Set<Object> inUse = new HashSet<>();
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    WalletPool.Lease lease = pool.acquire();
+                    boolean exclusive;
+                    synchronized (inUse) {
+                        exclusive = inUse.add(lease.wallet());
+                    }
+                    Thread.sleep(20);
+                    synchronized (inUse) {
+                        inUse.remove(lease.wallet());
+                    }
+                    lease.close();
+                    return exclusive;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                assertThat(result.get(30, TimeUnit.SECONDS)).isTrue();
+            }
+            executor.shutdown();
+            assertThat(pool.size()).isLessThanOrEqualTo(2);
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void replacesWalletWhoseInitialCredentialsWereDeleted() {
+        WalletPool pool = new WalletPool(1, WalletPool::embedded);
+        try {
+            WalletPool.Lease lease = pool.acquire();
+            lease.client().deleteCredentialsByType("urn:eu.europa.ec.eudi:pid:1");
+            lease.close();
+
+            WalletPool.Lease next = pool.acquire();
+            assertThat(next.wallet()).isNotSameAs(lease.wallet());
+            assertThat(next.client().hasCredentialWithType("urn:eu.europa.ec.eudi:pid:1")).isTrue();
+            next.close();
+        } finally {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PresentationLoadDriverTest {
+
+    private HttpServer server;
+    private final AtomicInteger received = new AtomicInteger();
+
+    @BeforeEach
+    void startStubWallet() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/presentations", exchange -> {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            received.incrementAndGet();
+            boolean fail = body.contains("fail");
+            byte[] response = (fail ? "{\"error\":\"invalid_request\"}" : "{\"redirect_uri\":\"https://verifier/done\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(fail ? 400 : 200, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStubWallet() {
+        server.stop(0);
+    }
+
+    @Test
+    void runsFixedNumberOfRequests() {
+        WalletClient client = new WalletClient("http://127.0.0.1:" + server.getAddress().getPort());
+
+        LoadReport report = new PresentationLoadDriver(() -> "openid4vp://ok", client)
+                .concurrency(4)
+                .requests(40)
+                .run();
+
+        assertThat(report.operations()).isEqualTo(40);
+        assertThat(report.successes()).isEqualTo(40);
+        assertThat(report.errors()).isEmpty();
+        assertThat(received).hasValue(40);
+        assertThat(report.latencies().count()).isEqualTo(40);
+        assertThat(report.latencyAtPercentile(99)).isPositive();
+        assertThat(report.throughput()).isPositive();
+    }
+
+    @Test
+    void reportsErrorsByStatusCode() {
+        AtomicInteger counter = new AtomicInteger();
+        WalletClient client = new WalletClient("http://127.0.0.1:" + server.getAddress().getPort());
+
+        LoadReport report = new PresentationLoadDriver(
+                () -> counter.incrementAndGet() % 2 == 0 ? "openid4vp://fail" : "openid4vp://ok", client)
+                .requests(10)
+                .run();
+
+        assertThat(report.operations()).isEqualTo(10);
+        assertThat(report.failures()).isEqualTo(5);
+        assertThat(report.errors()).containsEntry("HTTP 400", 5L);
+        assertThat(report.latencies().count()).isEqualTo(10);
+        assertThat(report.serviceTimes().count()).isEqualTo(10);
+    }
+
+    @Test
+    void doesNotTimeFailedRequestUriSupplier() {
+        AtomicInteger counter = new AtomicInteger();
+        WalletClient client = new WalletClient("http://127.0.0.1:" + server.getAddress().getPort());
+
+        LoadReport report = new PresentationLoadDriver(() -> {
+            if (counter.incrementAndGet() % 2 == 0) {
+                throw new IllegalStateException("verifier down");
+            }
+            return "openid4vp://ok";
+        }, client)
+                .requests(10)
+                .run();
+
+        assertThat(report.errors()).containsEntry("supplier: IllegalStateException", 5L);
+        assertThat(report.operations()).isEqualTo(10);
+        assertThat(report.latencies().count()).isEqualTo(5);
+        assertThat(report.serviceTimes().count()).isEqualTo(5);
+    }
+
+    @Test
+    void stopsAfterDurationAtTargetRate() {
+        WalletClient client = new WalletClient("http://127.0.0.1:" + server.getAddress().getPort());
+
+        LoadReport report = new PresentationLoadDriver(() -> "openid4vp://ok", client, client)
+                .ratePerSecond(50)
+                .concurrency(2)
+                .duration(Duration.ofMillis(500))
+                .run();
+
+        // 50/s over 500ms schedules at most 25 requests, however fast the wallet answers
+        assertThat(report.operations()).isBetween(1L, 25L);
+        assertThat(report.failures()).isZero();
+        assertThat(report.elapsed()).isGreaterThanOrEqualTo(Duration.ofMillis(480));
+    }
+
+    @Test
+    void requiresStopCondition() {
+        WalletClient client = new WalletClient("http://127.0.0.1:" + server.getAddress().getPort());
+
+        assertThatThrownBy(() -> new PresentationLoadDriver(() -> "openid4vp://ok", client).run())
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
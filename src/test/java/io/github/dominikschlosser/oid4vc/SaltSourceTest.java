@@ -0,0 +1,90 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SaltSourceTest {
+
+    @Test
+    void builtInSourcesProduceDistinctSixteenByteSalts() {
+        for (SaltSource source : List.of(SaltSource.shared(), SaltSource.threadLocal(), SaltSource.striped(3),
+                SaltSource.batched(8))) {
+            Set<String> salts = ConcurrentHashMap.newKeySet();
+            IntStream.range(0, 1000).parallel().forEach(i -> salts.add(source.nextSalt()));
+
+            assertThat(salts).hasSize(1000);
+            assertThat(Base64.getUrlDecoder().decode(salts.iterator().next())).hasSize(SaltSource.SALT_LENGTH);
+        }
+    }
+
+    @Test
+    void seededSourceIsReproducible() {
+        SaltSource first = SaltSource.seeded(42);
+        SaltSource second = SaltSource.seeded(42);
+
+        List<String> a = IntStream.range(0, 10).mapToObj(i -> first.nextSalt()).toList();
+        List<String> b = IntStream.range(0, 10).mapToObj(i -> second.nextSalt()).toList();
+
+        assertThat(a).isEqualTo(b).doesNotHaveDuplicates();
+        assertThat(SaltSource.seeded(43).nextSalt()).isNotEqualTo(a.getFirst());
+    }
+
+    @Test
+    void seededBuildersProduceIdenticalDisclosures() {
+        String first = seededBuilder().build();
+        String second = seededBuilder().build();
+
+        assertThat(disclosures(second)).isEqualTo(disclosures(first));
+    }
+
+    @Test
+    void seededBatchesAreReproducibleWhenMintedInParallel() {
+        List<String> first = seededBuilder().buildBatch(200, i -> Map.of("given_name", "Holder " + (i % 3)));
+        List<String> second = seededBuilder().buildBatch(200, i -> Map.of("given_name", "Holder " + (i % 3)));
+
+        assertThat(second).map(SaltSourceTest::disclosures)
+                .isEqualTo(first.stream().map(SaltSourceTest::disclosures).toList());
+        assertThat(first).map(SaltSourceTest::disclosures).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void batchSizeMustBePositive() {
+        assertThatThrownBy(() -> SaltSource.batched(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SaltSource.striped(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static SdJwtCredentialBuilder seededBuilder() {
+        return new SdJwtCredentialBuilder()
+                .saltSource(SaltSource.seeded(7))
+                .claim("given_name", "Jane")
+                .arrayClaim("nationalities", List.of("DE", "US"));
+    }
+
+    private static String disclosures(String sdJwt) {
+        return sdJwt.substring(sdJwt.indexOf('~'));
+    }
+}
@@ -15,10 +15,15 @@
  */
 package io.github.dominikschlosser.oid4vc;
 
+import com.authlete.sd.Disclosure;
+import com.authlete.sd.SDJWT;
+import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSVerifier;
 import com.nimbusds.jose.crypto.ECDSAVerifier;
 import com.nimbusds.jose.jwk.Curve;
 import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.OctetKeyPair;
 import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
 import com.nimbusds.jwt.SignedJWT;
 import org.junit.jupiter.api.Test;
@@ -26,8 +31,13 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class SdJwtCredentialBuilderTest {
 
@@ -81,6 +91,8 @@ class SdJwtCredentialBuilderTest {
 
         JWSVerifier verifier = new ECDSAVerifier(customKey.toPublicJWK());
         assertThat(parsed.verify(verifier)).isTrue();
+        // binary compatibility with callers compiled against earlier versions
+        assertThat(SdJwtCredentialBuilder.class.getConstructor(ECKey.class)).isNotNull();
     }
 
     @Test
@@ -181,4 +193,213 @@ class SdJwtCredentialBuilderTest {
         assertThat(key.getCurve()).isEqualTo(Curve.P_256);
         assertThat(key.isPrivate()).isTrue();
     }
+
+    @Test
+    void freshPerCredentialPolicySignsEachBuildWithNewKey() throws Exception {
+        try (SigningKeyPool pool = new SigningKeyPool(4)) {
+            SdJwtCredentialBuilder builder = new SdJwtCredentialBuilder(pool, SigningKeyPolicy.FRESH_PER_CREDENTIAL)
+                    .claim("name", "Test");
+
+            String first = builder.build();
+            ECKey firstKey = builder.getSigningKey();
+            String second = builder.build();
+            ECKey secondKey = builder.getSigningKey();
+
+            assertThat(firstKey).isNotEqualTo(secondKey);
+            assertThat(SignedJWT.parse(first.split("~")[0]).verify(new ECDSAVerifier(firstKey.toPublicJWK()))).isTrue();
+            assertThat(SignedJWT.parse(second.split("~")[0]).verify(new ECDSAVerifier(secondKey.toPublicJWK()))).isTrue();
+            assertThat(pool.stats().served()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void perIssuerPolicySharesKeysAcrossBuilders() {
+        try (SigningKeyPool pool = new SigningKeyPool(4)) {
+            ECKey a = new SdJwtCredentialBuilder(pool, SigningKeyPolicy.PER_ISSUER).issuer("https://a").getSigningKey();
+            ECKey b = new SdJwtCredentialBuilder(pool, SigningKeyPolicy.PER_ISSUER).issuer("https://b").getSigningKey();
+            ECKey a2 = new SdJwtCredentialBuilder(pool, SigningKeyPolicy.PER_ISSUER).issuer("https://a").getSigningKey();
+
+            assertThat(a).isEqualTo(a2);
+            assertThat(a).isNotEqualTo(b);
+        }
+    }
+
+    @Test
+    void fixedPolicyTakesOneKeyFromPool() {
+        try (SigningKeyPool pool = new SigningKeyPool(4)) {
+            SdJwtCredentialBuilder builder = new SdJwtCredentialBuilder(pool, SigningKeyPolicy.FIXED);
+            ECKey key = builder.getSigningKey();
+
+            builder.claim("name", "Test").build();
+            builder.build();
+
+            assertThat(builder.getSigningKey()).isEqualTo(key);
+            assertThat(pool.stats().served()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void drainedPoolGeneratesInlineAndCountsExhaustion() {
+        try (SigningKeyPool pool = new SigningKeyPool(1)) {
+            pool.close();
+            for (int i = 0; i < 3; i++) {
+                assertThat(pool.take().isPrivate()).isTrue();
+            }
+
+            SigningKeyPool.Stats stats = pool.stats();
+            assertThat(stats.served()).isEqualTo(3);
+            assertThat(stats.exhausted()).isGreaterThanOrEqualTo(2);
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void templateMintsDisclosuresMatchingTheirDigests() throws Exception {
+        SdJwtCredentialTemplate template = new SdJwtCredentialBuilder()
+                .vct("urn:example:test:1")
+                .claim("given_name", "Jane")
+                .objectClaim("address", Map.of("city", "Berlin"))
+                .arrayClaim("nationalities", List.of("DE", "US"))
+                .toTemplate();
+
+        SDJWT sdJwt = SDJWT.parse(template.mint());
+        List<String> digests = (List<String>) SignedJWT.parse(sdJwt.getCredentialJwt()).getJWTClaimsSet().getClaim("_sd");
+
+        assertThat(sdJwt.getDisclosures()).extracting(Disclosure::getClaimName)
+                .containsExactly("given_name", "address.city", "nationalities", "nationalities");
+        assertThat(sdJwt.getDisclosures()).extracting(Disclosure::digest).containsExactlyElementsOf(digests);
+        assertThat(SignedJWT.parse(sdJwt.getCredentialJwt()).verify(
+                new ECDSAVerifier(template.getSigningKey().toPublicJWK()))).isTrue();
+    }
+
+    @Test
+    void templateOverridesReplaceAndAddClaims() {
+        SdJwtCredentialTemplate template = new SdJwtCredentialBuilder()
+                .claim("given_name", "Jane")
+                .claim("family_name", "Doe")
+                .objectClaim("address", Map.of("city", "Berlin"))
+                .toTemplate();
+
+        SDJWT sdJwt = SDJWT.parse(template.mint(Map.of(
+                "given_name", "Max",
+                "address", Map.of("city", "Hamburg"),
+                "nickname", "M")));
+
+        assertThat(sdJwt.getDisclosures())
+                .extracting(d -> d.getClaimName() + "=" + d.getClaimValue())
+                .containsExactly("given_name=Max", "family_name=Doe", "nickname=M", "address.city=Hamburg");
+    }
+
+    @Test
+    void templateRejectsOverridesOfTheWrongShape() {
+        SdJwtCredentialTemplate template = new SdJwtCredentialBuilder()
+                .objectClaim("address", Map.of("city", "Berlin"))
+                .arrayClaim("nationalities", List.of("DE"))
+                .toTemplate();
+
+        assertThatThrownBy(() -> template.mint(Map.of("address", "Hamburg")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("address");
+        assertThatThrownBy(() -> template.mint(Map.of("nationalities", "FR")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("nationalities");
+    }
+
+    @Test
+    void templateIsUnaffectedByLaterBuilderChanges() {
+        SdJwtCredentialBuilder builder = new SdJwtCredentialBuilder().claim("given_name", "Jane");
+        SdJwtCredentialTemplate template = builder.toTemplate();
+
+        builder.claim("given_name", "Max").claim("extra", true);
+
+        assertThat(SDJWT.parse(template.mint()).getDisclosures())
+                .extracting(Disclosure::getClaimValue)
+                .containsExactly("Jane");
+    }
+
+    @Test
+    void templateMintsConcurrentlyWithDistinctSalts() {
+        SdJwtCredentialTemplate template = new SdJwtCredentialBuilder()
+                .claim("given_name", "Jane")
+                .toTemplate();
+        Set<String> credentials = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 200).parallel()
+                .forEach(i -> credentials.add(template.mint(Map.of("seq", i))));
+
+        assertThat(credentials).hasSize(200);
+    }
+
+    @Test
+    void buildBatchKeepsIndexOrder() {
+        List<String> batch = new SdJwtCredentialBuilder()
+                .vct("urn:example:batch:1")
+                .buildBatch(100, i -> Map.of("seq", "n" + i));
+
+        assertThat(batch).hasSize(100);
+        for (int i = 0; i < batch.size(); i++) {
+            assertThat(SDJWT.parse(batch.get(i)).getDisclosures().getFirst().getClaimValue()).isEqualTo("n" + i);
+        }
+    }
+
+    @Test
+    void mintBatchRunsOnGivenPool() {
+        SdJwtCredentialTemplate template = new SdJwtCredentialBuilder().claim("name", "Test").toTemplate();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            List<String> batch = template.mintBatch(10, i -> Map.of(), pool);
+            assertThat(batch).hasSize(10).doesNotHaveDuplicates();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void p384KeySignsWithEs384() throws Exception {
+        ECKey key = new ECKeyGenerator(Curve.P_384).generate();
+        String sdJwt = new SdJwtCredentialBuilder(key).claim("name", "Test").build();
+
+        SignedJWT parsed = SignedJWT.parse(sdJwt.split("~")[0]);
+        assertThat(parsed.getHeader().getAlgorithm()).isEqualTo(JWSAlgorithm.ES384);
+        assertThat(parsed.verify(new ECDSAVerifier(key.toPublicJWK()))).isTrue();
+    }
+
+    @Test
+    void ed25519KeySignsWithEdDsa() throws Exception {
+        SdJwtCredentialBuilder builder = SdJwtCredentialBuilder.forAlgorithm(JWSAlgorithm.EdDSA);
+        String sdJwt = builder.vct("urn:example:test:1").claim("name", "Test").build();
+
+        SignedJWT parsed = SignedJWT.parse(sdJwt.split("~")[0]);
+        assertThat(parsed.getHeader().getAlgorithm()).isEqualTo(JWSAlgorithm.EdDSA);
+        assertThat(builder.getSigningJwk()).isInstanceOf(OctetKeyPair.class);
+        assertThat(parsed.verify(JwsSupport.verifierFor(builder.getSigningJwk().toPublicJWK()))).isTrue();
+        assertThat(SDJWT.parse(sdJwt).getDisclosures()).hasSize(1);
+    }
+
+    @Test
+    void ed25519SignatureFailsWithOtherKey() throws Exception {
+        String sdJwt = SdJwtCredentialBuilder.forAlgorithm(JWSAlgorithm.EdDSA).claim("name", "Test").build();
+        JWK otherKey = JwsSupport.generateKey(JWSAlgorithm.EdDSA);
+
+        SignedJWT parsed = SignedJWT.parse(sdJwt.split("~")[0]);
+        assertThat(parsed.verify(JwsSupport.verifierFor(otherKey.toPublicJWK()))).isFalse();
+    }
+
+    @Test
+    void explicitAlgorithmOverridesDerivedOne() throws Exception {
+        SdJwtCredentialBuilder builder = SdJwtCredentialBuilder.forAlgorithm(JWSAlgorithm.PS256);
+        String sdJwt = builder.claim("name", "Test").build();
+
+        SignedJWT parsed = SignedJWT.parse(sdJwt.split("~")[0]);
+        assertThat(parsed.getHeader().getAlgorithm()).isEqualTo(JWSAlgorithm.PS256);
+        assertThat(parsed.verify(JwsSupport.verifierFor(builder.getSigningJwk()))).isTrue();
+    }
+
+    @Test
+    void ecKeyAccessorRejectsOtherKeyTypes() {
+        SdJwtCredentialBuilder builder = SdJwtCredentialBuilder.forAlgorithm(JWSAlgorithm.EdDSA);
+
+        assertThatThrownBy(builder::getSigningKey).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> builder.toTemplate().getSigningKey()).isInstanceOf(IllegalStateException.class);
+    }
 }
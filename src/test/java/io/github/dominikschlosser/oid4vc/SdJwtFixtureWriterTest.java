@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.authlete.sd.SDJWT;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SdJwtFixtureWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writesAndReadsBackEveryFixture() throws Exception {
+        ECKey holderKey = new ECKeyGenerator(Curve.P_256).keyID("holder-1").generate();
+        SdJwtCredentialTemplate template = new SdJwtCredentialBuilder()
+                .vct("urn:example:fixture:1")
+                .holderBindingKey(holderKey)
+                .claim("given_name", "Jane")
+                .toTemplate();
+        Path file = tempDir.resolve("fixtures.ndjson");
+
+        long written = new SdJwtFixtureWriter(template)
+                .workers(4)
+                .queueCapacity(8)
+                .bufferSize(4096)
+                .write(file, 500, i -> Map.of("seq", "n" + i));
+
+        assertThat(written).isEqualTo(500);
+        assertThat(Files.readAllLines(file)).hasSize(500);
+        try (Stream<SdJwtFixture> fixtures = SdJwtFixtureReader.read(file)) {
+            List<SdJwtFixture> sorted = fixtures.sorted(Comparator.comparingLong(SdJwtFixture::index)).toList();
+            assertThat(sorted).extracting(SdJwtFixture::index).containsExactlyElementsOf(
+                    LongStream.range(0, 500).boxed().toList());
+            SdJwtFixture last = sorted.getLast();
+            assertThat(last.vct()).isEqualTo("urn:example:fixture:1");
+            assertThat(last.holderKeyId()).isEqualTo("holder-1");
+            assertThat(last.claims()).containsEntry("given_name", "Jane").containsEntry("seq", "n499");
+            assertThat(SDJWT.parse(last.credential()).getDisclosures()).hasSize(2);
+        }
+    }
+
+    @Test
+    void propagatesMintingFailures() {
+        SdJwtCredentialTemplate template = new SdJwtCredentialBuilder().toTemplate();
+
+        assertThatThrownBy(() -> new SdJwtFixtureWriter(template)
+                .workers(2)
+                .write(tempDir.resolve("broken.ndjson"), 100, i -> {
+                    if (i == 42) {
+                        throw new IllegalArgumentException("boom");
+                    }
+                    return Map.of();
+                }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("boom");
+    }
+}
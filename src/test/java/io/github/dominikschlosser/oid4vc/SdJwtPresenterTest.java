@@ -0,0 +1,116 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.authlete.sd.Disclosure;
+import com.authlete.sd.SDJWT;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SdJwtPresenterTest {
+
+    @Test
+    void presentsSelectedDisclosuresWithKeyBindingJwt() throws Exception {
+        ECKey holderKey = holderKey();
+        String sdJwt = credential(holderKey);
+
+        String presentation = new SdJwtPresenter(holderKey)
+                .present(sdJwt, List.of("given_name", "address.city"), "nonce-123", "https://verifier.example.com");
+
+        SDJWT parsed = SDJWT.parse(presentation);
+        assertThat(parsed.getDisclosures()).extracting(Disclosure::getClaimName)
+                .containsExactlyInAnyOrder("given_name", "address.city");
+        assertThat(parsed.getBindingJwt()).isNotNull();
+
+        SignedJWT kbJwt = SignedJWT.parse(parsed.getBindingJwt());
+        assertThat(kbJwt.getHeader().getType().getType()).isEqualTo("kb+jwt");
+        assertThat(kbJwt.verify(new ECDSAVerifier(holderKey.toPublicJWK()))).isTrue();
+        assertThat(kbJwt.getJWTClaimsSet().getAudience()).containsExactly("https://verifier.example.com");
+        assertThat(kbJwt.getJWTClaimsSet().getStringClaim("nonce")).isEqualTo("nonce-123");
+        assertThat(kbJwt.getJWTClaimsSet().getIssueTime()).isNotNull();
+
+        String presented = presentation.substring(0, presentation.lastIndexOf('~') + 1);
+        String expectedHash = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                MessageDigest.getInstance("SHA-256").digest(presented.getBytes(StandardCharsets.US_ASCII)));
+        assertThat(kbJwt.getJWTClaimsSet().getStringClaim("sd_hash")).isEqualTo(expectedHash);
+    }
+
+    @Test
+    void presentAllKeepsEveryDisclosure() {
+        ECKey holderKey = holderKey();
+        String sdJwt = credential(holderKey);
+
+        String presentation = new SdJwtPresenter(holderKey).presentAll(sdJwt, "n", "aud");
+
+        assertThat(SDJWT.parse(presentation).getDisclosures()).hasSameSizeAs(SDJWT.parse(sdJwt).getDisclosures());
+    }
+
+    @Test
+    void arrayClaimNameSelectsAllElements() {
+        ECKey holderKey = holderKey();
+        String presentation = new SdJwtPresenter(holderKey)
+                .present(credential(holderKey), List.of("nationalities"), "n", "aud");
+
+        assertThat(SDJWT.parse(presentation).getDisclosures()).extracting(Disclosure::getClaimValue)
+                .containsExactlyInAnyOrder("DE", "FR");
+    }
+
+    @Test
+    void ed25519HolderKeySignsWithEdDsa() throws Exception {
+        JWK holderKey = JwsSupport.generateKey(JWSAlgorithm.EdDSA);
+        String sdJwt = new SdJwtCredentialBuilder().holderBindingKey(holderKey).claim("name", "Test").build();
+
+        String presentation = new SdJwtPresenter(holderKey).presentAll(sdJwt, "n", "aud");
+
+        SignedJWT kbJwt = SignedJWT.parse(SDJWT.parse(presentation).getBindingJwt());
+        assertThat(kbJwt.getHeader().getAlgorithm()).isEqualTo(JWSAlgorithm.EdDSA);
+        assertThat(kbJwt.verify(JwsSupport.verifierFor(holderKey.toPublicJWK()))).isTrue();
+    }
+
+    @Test
+    void rejectsPublicHolderKey() {
+        assertThatThrownBy(() -> new SdJwtPresenter(holderKey().toPublicJWK()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String credential(ECKey holderKey) {
+        return new SdJwtCredentialBuilder()
+                .vct("urn:example:test:1")
+                .holderBindingKey(holderKey.toPublicJWK())
+                .claim("given_name", "Jane")
+                .claim("family_name", "Doe")
+                .objectClaim("address", Map.of("city", "Berlin", "street", "Main St"))
+                .arrayClaim("nationalities", List.of("DE", "FR"))
+                .build();
+    }
+
+    private static ECKey holderKey() {
+        return (ECKey) JwsSupport.generateKey(JWSAlgorithm.ES256);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SdJwtVerifierTest {
+
+    @Test
+    void verifiesBuilderOutputAndRestoresClaims() {
+        SdJwtCredentialBuilder builder = builder();
+        String sdJwt = builder.build();
+
+        VerifiedSdJwt verified = new SdJwtVerifier(builder.getSigningJwk().toPublicJWK()).verify(sdJwt);
+
+        assertThat(verified.vct()).isEqualTo("urn:example:test:1");
+        assertThat(verified.issuer()).isEqualTo("https://issuer.example.com");
+        assertThat(verified.claim("given_name")).isEqualTo("Jane");
+        assertThat(verified.claim("address.city")).isEqualTo("Berlin");
+        assertThat(verified.claim("nationalities")).isEqualTo(List.of("DE", "FR"));
+        assertThat(verified.claims()).doesNotContainKeys("_sd", "_sd_alg");
+        assertThat(verified.disclosureCount()).isEqualTo(5);
+        assertThat(verified.keyBinding()).isNull();
+    }
+
+    @Test
+    void looksUpKeyByKidInJwkSet() throws Exception {
+        ECKey issuerKey = new ECKeyGenerator(Curve.P_256).keyID("issuer-1").generate();
+        ECKey otherKey = new ECKeyGenerator(Curve.P_256).keyID("issuer-2").generate();
+        String sdJwt = new SdJwtCredentialBuilder(issuerKey).claim("name", "Test").build();
+
+        SdJwtVerifier verifier = SdJwtVerifier.fromJwkSet(
+                new JWKSet(List.of(otherKey, issuerKey)).toPublicJWKSet().toString());
+
+        assertThat(verifier.verify(sdJwt).claim("name")).isEqualTo("Test");
+    }
+
+    @Test
+    void trustsKeysOfTrustList() throws Exception {
+        ECKey issuerKey = new ECKeyGenerator(Curve.P_256).keyID("issuer-1").generate();
+        ECKey otherKey = new ECKeyGenerator(Curve.P_256).keyID("issuer-2").generate();
+        SignedJWT trustList = new SignedJWT(new JWSHeader(JWSAlgorithm.ES256), new JWTClaimsSet.Builder()
+                .claim("keys", List.of(otherKey.toPublicJWK().toJSONObject(), issuerKey.toPublicJWK().toJSONObject()))
+                .build());
+        trustList.sign(new ECDSASigner(otherKey));
+        String sdJwt = new SdJwtCredentialBuilder(issuerKey).claim("name", "Test").build();
+
+        assertThat(SdJwtVerifier.fromTrustList(trustList.serialize()).verify(sdJwt).claim("name")).isEqualTo("Test");
+    }
+
+    @Test
+    void trustsIssuerKeyOfWallet() {
+        try (EmbeddedWallet wallet = new EmbeddedWallet().start()) {
+            SdJwtVerifier verifier = SdJwtVerifier.fromTrustList(wallet.client());
+
+            // the trust list is signed with the issuer key it lists
+            String trustList = wallet.client().getTrustList();
+            assertThat(verifier.verify(trustList + "~").claims()).containsKey("keys");
+            assertThatThrownBy(() -> verifier.verify(builder().build()))
+                    .isInstanceOf(SdJwtVerificationException.class);
+        }
+    }
+
+    @Test
+    void rejectsTrustListWithoutKeys() throws Exception {
+        SignedJWT jwt = new SignedJWT(new JWSHeader(JWSAlgorithm.ES256),
+                new JWTClaimsSet.Builder().issuer("https://wallet.example.com").build());
+        jwt.sign(new ECDSASigner(new ECKeyGenerator(Curve.P_256).generate()));
+
+        assertThatThrownBy(() -> SdJwtVerifier.fromTrustList(jwt.serialize()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("keys");
+        assertThatThrownBy(() -> SdJwtVerifier.fromTrustList("not a jwt"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsUntrustedSignature() {
+        String sdJwt = builder().build();
+        JWK otherKey = JwsSupport.generateKey(JWSAlgorithm.ES256);
+
+        assertThatThrownBy(() -> new SdJwtVerifier(otherKey.toPublicJWK()).verify(sdJwt))
+                .isInstanceOf(SdJwtVerificationException.class)
+                .hasMessageContaining("signature");
+    }
+
+    @Test
+    void rejectsDisclosureWithoutMatchingDigest() {
+        SdJwtCredentialBuilder builder = builder();
+        String sdJwt = builder.build();
+        String foreign = builder.build().split("~")[1];
+
+        assertThatThrownBy(() -> new SdJwtVerifier(builder.getSigningJwk()).verify(sdJwt + foreign + "~"))
+                .isInstanceOf(SdJwtVerificationException.class)
+                .hasMessageContaining("not referenced");
+    }
+
+    @Test
+    void rejectsExpiredCredential() {
+        SdJwtCredentialBuilder builder = builder().ttl(Duration.ofSeconds(-1));
+
+        assertThatThrownBy(() -> new SdJwtVerifier(builder.getSigningJwk()).verify(builder.build()))
+                .isInstanceOf(SdJwtVerificationException.class)
+                .hasMessageContaining("expired");
+    }
+
+    @Test
+    void verifiesKeyBindingOfPresentation() {
+        ECKey holderKey = (ECKey) JwsSupport.generateKey(JWSAlgorithm.ES256);
+        SdJwtCredentialBuilder builder = builder().holderBindingKey(holderKey.toPublicJWK());
+        SdJwtVerifier verifier = new SdJwtVerifier(builder.getSigningJwk());
+        String presentation = new SdJwtPresenter(holderKey)
+                .present(builder.build(), List.of("given_name", "address.city"), "nonce-1", "https://verifier");
+
+        VerifiedSdJwt verified = verifier.verify(presentation);
+
+        assertThat(verified.claims()).containsKeys("given_name", "address.city").doesNotContainKey("family_name");
+        assertThat(verified.keyBinding()).containsEntry("nonce", "nonce-1");
+
+        String[] parts = presentation.split("~");
+        String withoutDisclosure = parts[0] + "~" + parts[1] + "~" + parts[3];
+        assertThatThrownBy(() -> verifier.verify(withoutDisclosure))
+                .isInstanceOf(SdJwtVerificationException.class)
+                .hasMessageContaining("sd_hash");
+    }
+
+    @Test
+    void verifiesEd25519Issuer() {
+        SdJwtCredentialBuilder builder = SdJwtCredentialBuilder.forAlgorithm(JWSAlgorithm.EdDSA).claim("name", "Test");
+
+        assertThat(new SdJwtVerifier(builder.getSigningJwk().toPublicJWK()).verify(builder.build()).claim("name"))
+                .isEqualTo("Test");
+    }
+
+    @Test
+    void verifyAllKeepsOrderAndNamesFailingIndex() {
+        SdJwtCredentialTemplate template = builder().toTemplate();
+        SdJwtVerifier verifier = new SdJwtVerifier(template.getSigningJwk());
+        List<String> batch = template.mintBatch(50, i -> Map.of("given_name", "Holder " + i));
+
+        List<VerifiedSdJwt> verified = verifier.verifyAll(batch);
+
+        assertThat(verified).hasSize(50);
+        assertThat(verified.get(17).claim("given_name")).isEqualTo("Holder 17");
+
+        List<String> tampered = new ArrayList<>(batch);
+        tampered.set(23, batch.get(23) + batch.get(24).split("~")[1] + "~");
+        assertThatThrownBy(() -> verifier.verifyAll(tampered))
+                .isInstanceOf(SdJwtVerificationException.class)
+                .hasMessageStartingWith("SD-JWT 23:");
+    }
+
+    private static SdJwtCredentialBuilder builder() {
+        return new SdJwtCredentialBuilder()
+                .vct("urn:example:test:1")
+                .issuer("https://issuer.example.com")
+                .claim("given_name", "Jane")
+                .claim("family_name", "Doe")
+                .objectClaim("address", Map.of("city", "Berlin"))
+                .arrayClaim("nationalities", List.of("DE", "FR"));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedWalletClientTest {
+
+    // Nothing listens on port 1, so every request fails at the transport level.
+    private static WalletClient unreachable() {
+        return new WalletClient("http://127.0.0.1:1");
+    }
+
+    @Test
+    void routesHoldersConsistentlyAndSpreadsThem() {
+        ShardedWalletClient sharded = new ShardedWalletClient(List.of(unreachable(), unreachable(), unreachable()));
+
+        Map<Integer, Integer> perShard = new HashMap<>();
+        for (int i = 0; i < 300; i++) {
+            String holder = "holder-" + i;
+            int shard = sharded.shardFor(holder);
+            assertThat(sharded.shardFor(holder)).isEqualTo(shard);
+            perShard.merge(shard, 1, Integer::sum);
+        }
+
+        assertThat(perShard).hasSize(3);
+        assertThat(perShard.values()).allMatch(count -> count > 50);
+    }
+
+    @Test
+    void failoverOnlyMovesHoldersOfTheFailedWallet() {
+        ShardedWalletClient sharded = new ShardedWalletClient(List.of(unreachable(), unreachable(), unreachable()));
+        int[] before = IntStream.range(0, 300).map(i -> sharded.shardFor("holder-" + i)).toArray();
+
+        sharded.markUnhealthy(1);
+
+        for (int i = 0; i < 300; i++) {
+            int after = sharded.shardFor("holder-" + i);
+            assertThat(after).isNotEqualTo(1);
+            if (before[i] != 1) {
+                assertThat(after).isEqualTo(before[i]);
+            }
+        }
+
+        sharded.markHealthy(1);
+        assertThat(IntStream.range(0, 300).map(i -> sharded.shardFor("holder-" + i)).toArray()).isEqualTo(before);
+    }
+
+    @Test
+    void transportFailureTakesWalletOutOfRotationAndIsCounted() {
+        ShardedWalletClient sharded = new ShardedWalletClient(List.of(unreachable(), unreachable()));
+        int shard = sharded.shardFor("alice");
+
+        assertThatThrownBy(() -> sharded.getCredentials("alice")).isInstanceOf(WalletClientException.class);
+
+        assertThat(sharded.shardFor("alice")).isNotEqualTo(shard);
+        ShardedWalletClient.ShardStats stats = sharded.shardStats().get(shard);
+        assertThat(stats.healthy()).isFalse();
+        assertThat(stats.operations()).isEqualTo(1);
+        assertThat(stats.errors()).isEqualTo(1);
+        assertThat(sharded.aggregateStats().latencies().count()).isEqualTo(1);
+    }
+
+    @Test
+    void malformedResponseKeepsWalletInRotation() {
+        WalletClient garbled = new WalletClient("http://wallet",
+                (method, path, contentType, body) -> new WalletTransport.Response(200, "not json"));
+        ShardedWalletClient sharded = new ShardedWalletClient(List.of(garbled));
+
+        assertThatThrownBy(() -> sharded.getCredentials("alice"))
+                .isInstanceOf(WalletClientException.class)
+                .hasFieldOrPropertyWithValue("statusCode", -1);
+
+        assertThat(sharded.shardStats().get(0).healthy()).isTrue();
+        assertThat(sharded.shardStats().get(0).errors()).isEqualTo(1);
+    }
+
+    @Test
+    void failsWhenNoWalletIsHealthy() {
+        ShardedWalletClient sharded = new ShardedWalletClient(List.of(unreachable()));
+        sharded.markUnhealthy(0);
+
+        assertThatThrownBy(() -> sharded.clientFor("alice"))
+                .isInstanceOf(WalletClientException.class)
+                .hasMessageContaining("No healthy wallet");
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StubIssuerTest {
+
+    private EmbeddedWallet wallet;
+    private StubIssuer issuer;
+
+    @BeforeEach
+    void start() {
+        wallet = new EmbeddedWallet().withoutDefaultPid().start();
+        issuer = new StubIssuer()
+                .credentialConfiguration("urn:test:stub:1", Map.of("given_name", "Jane"))
+                .start();
+    }
+
+    @AfterEach
+    void stop() {
+        issuer.stop();
+        wallet.stop();
+    }
+
+    @Test
+    void countsCompletedIssuanceFlows() {
+        LoadReport report = new IssuanceLoadDriver(issuer::createOfferUri, wallet.client())
+                .offers(20)
+                .verifyIssued()
+                .run();
+
+        assertThat(report.successes()).isEqualTo(20);
+        assertThat(issuer.offersCreated()).isEqualTo(20);
+        assertThat(issuer.offersRedeemed()).isEqualTo(20);
+        assertThat(issuer.credentialsIssued()).isEqualTo(20);
+        assertThat(wallet.client().getCredentialsByType("urn:test:stub:1")).hasSize(20)
+                .allSatisfy(c -> assertThat(c.claims()).containsEntry("given_name", "Jane"));
+    }
+
+    @Test
+    void issuesCredentialsBoundToProofKey() {
+        StubVerifier verifier = new StubVerifier().vct("urn:test:stub:1").trust(issuer.getSigningKey()).start();
+        try (verifier) {
+            wallet.acceptCredentialOffer(issuer.createOfferUri());
+            wallet.acceptPresentationRequest(verifier.createRequestUri());
+
+            assertThat(verifier.presentationsVerified()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void preAuthorizedCodeIsSingleUse() {
+        String offer = issuer.createOfferUri();
+        wallet.acceptCredentialOffer(offer);
+
+        assertThatThrownBy(() -> wallet.acceptCredentialOffer(offer)).isInstanceOf(WalletClientException.class);
+        assertThat(issuer.credentialsIssued()).isEqualTo(1);
+    }
+
+    @Test
+    void acceptsNonceFromNonceEndpointAndKeepsTokenAfterRejectedProof() throws Exception {
+        ECKey holderKey = new ECKeyGenerator(Curve.P_256).generate();
+        String offer = URLDecoder.decode(issuer.createOfferUri().substring(
+                "openid-credential-offer://?credential_offer=".length()), StandardCharsets.UTF_8);
+        String code = offer.replaceAll(".*\"pre-authorized_code\":\"([^\"]+)\".*", "$1");
+        Map<String, Object> token = post("/token", "application/x-www-form-urlencoded",
+                "grant_type=urn%3Aietf%3Aparams%3Aoauth%3Agrant-type%3Apre-authorized_code&pre-authorized_code=" + code);
+        assertThat(token).doesNotContainKey("c_nonce");
+        String accessToken = (String) token.get("access_token");
+
+        HttpResponse<String> rejected = credentialRequest(accessToken, proof(holderKey, "made-up-nonce"));
+        String nonce = (String) post("/nonce", null, "").get("c_nonce");
+        HttpResponse<String> issued = credentialRequest(accessToken, proof(holderKey, nonce));
+        HttpResponse<String> replayed = credentialRequest(accessToken, proof(holderKey, nonce));
+
+        assertThat(rejected.statusCode()).isEqualTo(400);
+        assertThat(issued.statusCode()).isEqualTo(200);
+        assertThat(replayed.statusCode()).isEqualTo(401);
+        assertThat(issuer.proofsRejected()).isEqualTo(1);
+        assertThat(issuer.credentialsIssued()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsExpiredOffers() throws Exception {
+        issuer.expireAfter(Duration.ofMillis(50));
+        String expired = issuer.createOfferUri();
+        for (int i = 0; i < 100; i++) {
+            issuer.createOfferUri();
+        }
+        Thread.sleep(100);
+        issuer.createOfferUri();
+
+        assertThat(issuer.openEntries()).isOne();
+        assertThatThrownBy(() -> wallet.acceptCredentialOffer(expired)).isInstanceOf(WalletClientException.class);
+    }
+
+    @Test
+    void rejectsUnknownConfiguration() {
+        assertThatThrownBy(() -> issuer.createOfferUri("urn:test:unknown"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private HttpResponse<String> credentialRequest(String accessToken, String proof) throws Exception {
+        return HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(issuer.getBaseUrl() + "/credential"))
+                        .header("Authorization", "Bearer " + accessToken)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"credential_configuration_id\":\"urn:test:stub:1\","
+                                + "\"proofs\":{\"jwt\":[\"" + proof + "\"]}}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+    }
+
+    private Map<String, Object> post(String path, String contentType, String body) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(issuer.getBaseUrl() + path))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (contentType != null) {
+            request.header("Content-Type", contentType);
+        }
+        String response = HttpClient.newHttpClient().send(request.build(), HttpResponse.BodyHandlers.ofString()).body();
+        return new ObjectMapper().readValue(response, new TypeReference<>() {});
+    }
+
+    private String proof(ECKey holderKey, String nonce) throws Exception {
+        SignedJWT proof = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.ES256)
+                        .type(new JOSEObjectType("openid4vci-proof+jwt"))
+                        .jwk(holderKey.toPublicJWK())
+                        .build(),
+                new JWTClaimsSet.Builder()
+                        .audience(issuer.getBaseUrl())
+                        .issueTime(new Date())
+                        .claim("nonce", nonce)
+                        .build());
+        proof.sign(new ECDSASigner(holderKey));
+        return proof.serialize();
+    }
+}
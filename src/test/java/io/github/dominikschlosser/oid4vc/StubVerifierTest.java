@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.util.X509CertUtils;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.cert.X509Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StubVerifierTest {
+
+    private EmbeddedWallet wallet;
+    private StubVerifier verifier;
+
+    @BeforeEach
+    void start() {
+        wallet = new EmbeddedWallet().start();
+        verifier = new StubVerifier().start();
+    }
+
+    @AfterEach
+    void stop() {
+        verifier.stop();
+        wallet.stop();
+    }
+
+    @Test
+    void countsVerifiedPresentations() {
+        verifier.trust(wallet.getIssuerKey());
+
+        LoadReport report = new PresentationLoadDriver(verifier::createRequestUri, wallet.client())
+                .requests(20)
+                .run();
+
+        assertThat(report.successes()).isEqualTo(20);
+        assertThat(verifier.requestsCreated()).isEqualTo(20);
+        assertThat(verifier.requestsFetched()).isEqualTo(20);
+        assertThat(verifier.presentationsVerified()).isEqualTo(20);
+    }
+
+    @Test
+    void rejectsPresentationFromUntrustedIssuer() {
+        verifier.trust(JwsSupport.generateKey(JWSAlgorithm.ES256).toPublicJWK());
+
+        assertThatThrownBy(() -> wallet.acceptPresentationRequest(verifier.createRequestUri()))
+                .isInstanceOf(WalletClientException.class);
+        assertThat(verifier.presentationsRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void requestObjectCarriesCertificateForClientId() throws Exception {
+        String requestUri = URLDecoder.decode(verifier.createRequestUri().replaceAll(".*request_uri=", ""),
+                StandardCharsets.UTF_8);
+        String requestObject = HttpClient.newHttpClient().send(HttpRequest.newBuilder(URI.create(requestUri)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+
+        SignedJWT jwt = SignedJWT.parse(requestObject);
+        X509Certificate certificate = X509CertUtils.parse(jwt.getHeader().getX509CertChain().getFirst().decode());
+        assertThat(certificate).isEqualTo(verifier.getCertificate());
+        assertThat(certificate.getSubjectAlternativeNames()).containsExactly(List.of(2, "localhost"));
+        assertThat(jwt.verify(new ECDSAVerifier((ECPublicKey) certificate.getPublicKey()))).isTrue();
+        assertThat(jwt.getJWTClaimsSet().getStringClaim("client_id")).isEqualTo("x509_san_dns:localhost");
+    }
+
+    @Test
+    void responseWithWrongStateKeepsTransactionOpen() throws Exception {
+        String requestUri = verifier.createRequestUri();
+        String id = URLDecoder.decode(requestUri, StandardCharsets.UTF_8).replaceAll(".*/request/", "");
+
+        HttpResponse<String> stray = HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(verifier.getBaseUrl() + "/response/" + id))
+                        .header("Content-Type", "application/x-www-form-urlencoded")
+                        .POST(HttpRequest.BodyPublishers.ofString("state=wrong&vp_token=x"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        wallet.acceptPresentationRequest(requestUri);
+
+        assertThat(stray.statusCode()).isEqualTo(400);
+        assertThat(verifier.presentationsVerified()).isOne();
+    }
+
+    @Test
+    void dropsExpiredRequests() throws Exception {
+        verifier.expireAfter(Duration.ofMillis(50));
+        String expired = verifier.createRequestUri();
+        Thread.sleep(100);
+        verifier.createRequestUri();
+
+        assertThat(verifier.openTransactions()).isOne();
+        assertThatThrownBy(() -> wallet.acceptPresentationRequest(expired)).isInstanceOf(WalletClientException.class);
+    }
+
+    @Test
+    void countsWalletErrors() {
+        wallet.client().setNextError("access_denied", "User denied consent");
+
+        PresentationResponse response = wallet.acceptPresentationRequest(verifier.createRequestUri());
+
+        assertThat(response.redirectUri()).contains("error=access_denied");
+        assertThat(verifier.errorResponses()).isEqualTo(1);
+        assertThat(verifier.presentationsVerified()).isZero();
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WalletClientTest {
+
+    private static final String EMPTY = "[]";
+    private static final String PID = """
+            [{"id":"1","format":"dc+sd-jwt","type":"urn:eu.europa.ec.eudi:pid:1","claims":{}}]""";
+
+    @Test
+    void awaitCredentialReturnsOnceItAppears() {
+        AtomicInteger polls = new AtomicInteger();
+        WalletClient client = new WalletClient("http://wallet", (method, path, contentType, body) ->
+                new WalletTransport.Response(200, polls.incrementAndGet() < 4 ? EMPTY : PID));
+
+        Credential credential = client.awaitCredential(c -> "urn:eu.europa.ec.eudi:pid:1".equals(c.type()), Duration.ofSeconds(5));
+
+        assertThat(credential.id()).isEqualTo("1");
+        assertThat(polls).hasValue(4);
+    }
+
+    @Test
+    void awaitBacksOffWhileNothingChanges() {
+        AtomicInteger polls = new AtomicInteger();
+        WalletClient client = new WalletClient("http://wallet", (method, path, contentType, body) -> {
+            polls.incrementAndGet();
+            return new WalletTransport.Response(200, EMPTY);
+        });
+
+        assertThatThrownBy(() -> client.awaitCredential(c -> true, Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("/api/credentials");
+        // 10, 20, 40, ... 500 ms: a fixed 10 ms sleep would poll about 100 times
+        assertThat(polls.get()).isBetween(2, 10);
+    }
+
+    @Test
+    void awaitNoCredentialReturnsAfterDeletion() {
+        AtomicInteger polls = new AtomicInteger();
+        WalletClient client = new WalletClient("http://wallet", (method, path, contentType, body) ->
+                new WalletTransport.Response(200, polls.incrementAndGet() < 3 ? PID : EMPTY));
+
+        client.awaitNoCredential(c -> "1".equals(c.id()), Duration.ofSeconds(5));
+
+        assertThat(polls).hasValue(3);
+    }
+
+    @Test
+    void awaitStatusListChangeReturnsNewList() {
+        AtomicInteger polls = new AtomicInteger();
+        String revoked = statusListToken("eNrbuRgAAhcBXQ", 3);
+        WalletClient client = new WalletClient("http://wallet", (method, path, contentType, body) -> {
+            assertThat(path).isEqualTo("/api/statuslist");
+            int poll = polls.incrementAndGet();
+            return new WalletTransport.Response(200, poll < 3 ? statusListToken("eNoDAAAAAAE", poll) : revoked);
+        });
+
+        assertThat(client.awaitStatusListChange(statusListToken("eNoDAAAAAAE", 0), Duration.ofSeconds(5)))
+                .isEqualTo(revoked);
+    }
+
+    @Test
+    void awaitStatusListChangeIgnoresResignedTokens() {
+        AtomicInteger polls = new AtomicInteger();
+        WalletClient client = new WalletClient("http://wallet", (method, path, contentType, body) ->
+                new WalletTransport.Response(200, statusListToken("eNoDAAAAAAE", polls.incrementAndGet())));
+
+        assertThatThrownBy(() -> client.awaitStatusListChange(statusListToken("eNoDAAAAAAE", 0), Duration.ofSeconds(1)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("/api/statuslist");
+        assertThat(polls.get()).isBetween(2, 10);
+    }
+
+    @Test
+    void awaitStatusListChangeRejectsTokenWithoutStatusList() {
+        AtomicInteger polls = new AtomicInteger();
+        WalletClient client = new WalletClient("http://wallet", (method, path, contentType, body) ->
+                new WalletTransport.Response(200, statusListToken("eNoDAAAAAAE", polls.incrementAndGet())));
+        String credential = new SdJwtCredentialBuilder().claim("given_name", "Jane").build();
+
+        assertThatThrownBy(() -> client.awaitStatusListChange(credential, Duration.ofSeconds(5)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("status_list");
+        assertThat(polls).hasValue(0);
+    }
+
+    @Test
+    void awaitStatusListChangeSeesRevocationInEmbeddedWallet() {
+        try (EmbeddedWallet wallet = new EmbeddedWallet().withStatusList().start()) {
+            WalletClient client = wallet.client();
+            String before = client.getStatusList();
+            client.revokeCredential(client.getCredentials().get(0).id());
+
+            String after = client.awaitStatusListChange(before, Duration.ofSeconds(5));
+
+            assertThat(WalletClient.statusListClaim(after)).isNotEqualTo(WalletClient.statusListClaim(before));
+        }
+    }
+
+    @Test
+    void awaitStatusListChangeTimesOutWithoutRevocationInEmbeddedWallet() {
+        try (EmbeddedWallet wallet = new EmbeddedWallet().withStatusList().start()) {
+            WalletClient client = wallet.client();
+            String before = client.getStatusList();
+
+            assertThatThrownBy(() -> client.awaitStatusListChange(before, Duration.ofMillis(300)))
+                    .isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    // A token as the wallet signs it on every request: same list, new iat and signature.
+    private static String statusListToken(String lst, long iat) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String payload = "{\"iat\":" + iat + ",\"status_list\":{\"bits\":2,\"lst\":\"" + lst + "\"}}";
+        return encoder.encodeToString("{\"alg\":\"ES256\"}".getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(("signature-" + iat).getBytes(StandardCharsets.UTF_8));
+    }
+}
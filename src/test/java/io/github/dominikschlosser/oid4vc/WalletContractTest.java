@@ -0,0 +1,329 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * REST API contract shared by {@link Oid4vcContainer} and {@link EmbeddedWallet}.
+ * Subclasses provide a client for a wallet started with the default PID and
+ * the status list enabled, which reaches host ports via {@code localhost}.
+ *
+ * <p>A recording verifier and a minimal pre-authorized issuer run on all
+ * interfaces, so a container with {@link Oid4vcContainer#withHostAccess()}
+ * reaches them too.
+ */
+abstract class WalletContractTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String OFFERED_VCT = "urn:test:contract:offered";
+
+    static final String PID_VCT = "urn:eu.europa.ec.eudi:pid:1";
+
+    static HttpServer verifier;
+    static HttpServer issuer;
+    static final AtomicReference<Map<String, String>> lastResponse = new AtomicReference<>();
+    static final AtomicInteger credentialsIssued = new AtomicInteger();
+
+    protected abstract WalletClient client();
+
+    @BeforeAll
+    static void startPeers() throws IOException {
+        verifier = HttpServer.create(new InetSocketAddress(0), 0);
+        verifier.createContext("/response", exchange -> {
+            Map<String, String> form = new LinkedHashMap<>();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            for (String pair : body.split("&")) {
+                String[] kv = pair.split("=", 2);
+                form.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8), URLDecoder.decode(kv[1], StandardCharsets.UTF_8));
+            }
+            lastResponse.set(form);
+            respond(exchange, "{\"redirect_uri\":\"https://verifier.example.com/done\"}");
+        });
+        verifier.start();
+        issuer = startIssuer();
+    }
+
+    @AfterAll
+    static void stopPeers() {
+        verifier.stop(0);
+        issuer.stop(0);
+    }
+
+    @Test
+    void listsPreloadedSdJwtPid() {
+        List<Credential> credentials = client().getCredentials();
+
+        assertThat(credentials).isNotEmpty();
+        assertThat(credentials).anyMatch(c -> c.format() == CredentialFormat.SD_JWT && PID_VCT.equals(c.type()));
+        assertThat(credentials).allMatch(c -> c.id() != null && !c.id().isBlank());
+    }
+
+    @Test
+    void trustListAndStatusListAreJwts() {
+        assertThat(client().getTrustList().split("\\.")).hasSizeGreaterThanOrEqualTo(3);
+        assertThat(client().getStatusList().split("\\.")).hasSizeGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void presentsPidToResponseUri() {
+        String dcql = "{\"credentials\":[{\"id\":\"pid\",\"format\":\"dc+sd-jwt\","
+                + "\"meta\":{\"vct_values\":[\"" + PID_VCT + "\"]}}]}";
+
+        PresentationResponse response = client().acceptPresentationRequest(presentationRequest(dcql));
+
+        assertThat(response.redirectUri()).isEqualTo("https://verifier.example.com/done");
+        assertThat(lastResponse.get()).containsEntry("state", "state-1");
+        assertThat(presented("pid")).contains("~");
+    }
+
+    @Test
+    void setAndClearNextError() {
+        client().setNextError("access_denied", "User denied consent");
+        client().acceptPresentationRequest(presentationRequest(pidQuery()));
+
+        assertThat(lastResponse.get())
+                .containsEntry("error", "access_denied")
+                .containsEntry("error_description", "User denied consent")
+                .doesNotContainKey("vp_token");
+
+        client().setNextError("access_denied", "User denied consent");
+        client().clearNextError();
+        client().acceptPresentationRequest(presentationRequest(pidQuery()));
+
+        assertThat(lastResponse.get()).containsKey("vp_token").doesNotContainKey("error");
+    }
+
+    @Test
+    void setAndClearPreferredFormat() {
+        client().importCredential(new MdocCredentialBuilder()
+                .docType("org.example.contract.preferred.1")
+                .claim("given_name", "Jane")
+                .build());
+        String anyCredential = "{\"credentials\":[{\"id\":\"any\"}]}";
+        try {
+            client().setPreferredFormat(CredentialFormat.MSO_MDOC);
+            client().acceptPresentationRequest(presentationRequest(anyCredential));
+            assertThat(presented("any")).doesNotContain("~");
+
+            client().setPreferredFormat(CredentialFormat.SD_JWT);
+            client().acceptPresentationRequest(presentationRequest(anyCredential));
+            assertThat(presented("any")).contains("~");
+        } finally {
+            client().clearPreferredFormat();
+            client().deleteCredentialsByType("org.example.contract.preferred.1");
+        }
+    }
+
+    @Test
+    void revokeAndUnrevokeCredential() {
+        String id = client().getCredentials().stream()
+                .filter(c -> c.format() == CredentialFormat.SD_JWT)
+                .findFirst()
+                .map(Credential::id)
+                .orElseThrow();
+        Object initial = statusList(client().getStatusList());
+
+        client().revokeCredential(id);
+        Object revoked = statusList(client().getStatusList());
+        client().unrevokeCredential(id);
+
+        assertThat(revoked).isNotEqualTo(initial);
+        assertThat(statusList(client().getStatusList())).isEqualTo(initial);
+    }
+
+    @Test
+    void acceptsPreAuthorizedCredentialOffer() {
+        int issued = credentialsIssued.get();
+        String offer = "{\"credential_issuer\":\"" + issuerUrl() + "\","
+                + "\"credential_configuration_ids\":[\"" + OFFERED_VCT + "\"],"
+                + "\"grants\":{\"urn:ietf:params:oauth:grant-type:pre-authorized_code\":"
+                + "{\"pre-authorized_code\":\"code-1\"}}}";
+        try {
+            client().acceptCredentialOffer("openid-credential-offer://?credential_offer="
+                    + URLEncoder.encode(offer, StandardCharsets.UTF_8));
+
+            assertThat(credentialsIssued.get()).isEqualTo(issued + 1);
+            assertThat(client().getCredentialsByType(OFFERED_VCT)).singleElement()
+                    .satisfies(c -> assertThat(c.claims()).containsEntry("given_name", "Erika"));
+        } finally {
+            client().deleteCredentialsByType(OFFERED_VCT);
+        }
+    }
+
+    @Test
+    void importListAndDeleteCredential() {
+        String vct = "urn:test:contract:" + System.nanoTime();
+        String sdJwt = new SdJwtCredentialBuilder()
+                .vct(vct)
+                .claim("given_name", "Jane")
+                .objectClaim("address", Map.of("locality", "Berlin"))
+                .arrayClaim("nationalities", List.of("DE", "US"))
+                .build();
+
+        client().importCredential(sdJwt);
+
+        List<Credential> imported = client().getCredentialsByType(vct);
+        assertThat(imported).hasSize(1);
+        assertThat(imported.getFirst().format()).isEqualTo(CredentialFormat.SD_JWT);
+        assertThat(imported.getFirst().claims()).containsEntry("given_name", "Jane");
+
+        client().deleteCredential(imported.getFirst().id());
+        assertThat(client().hasCredentialWithType(vct)).isFalse();
+    }
+
+    @Test
+    void deleteCredentialsByType() {
+        String vct = "urn:test:contract-bulk:" + System.nanoTime();
+        client().importCredential(new SdJwtCredentialBuilder().vct(vct).claim("seq", "first").build());
+        client().importCredential(new SdJwtCredentialBuilder().vct(vct).claim("seq", "second").build());
+        assertThat(client().getCredentialsByType(vct)).hasSize(2);
+
+        client().deleteCredentialsByType(vct);
+        assertThat(client().hasCredentialWithType(vct)).isFalse();
+    }
+
+    @Test
+    void unknownTypeIsNotFound() {
+        assertThat(client().hasCredentialWithType("urn:nonexistent:type")).isFalse();
+        assertThat(client().getCredentialsByType("urn:nonexistent:type")).isEmpty();
+    }
+
+    @Test
+    void deleteNonExistentCredentialThrows() {
+        assertThatThrownBy(() -> client().deleteCredential("non-existent-id"))
+                .isInstanceOf(WalletClientException.class);
+    }
+
+    static String pidQuery() {
+        return "{\"credentials\":[{\"id\":\"pid\",\"meta\":{\"vct_values\":[\"" + PID_VCT + "\"]}}]}";
+    }
+
+    static String presentationRequest(String dcql) {
+        String uri = "openid4vp://?client_id=x509_san_dns%3Averifier.example.com&nonce=nonce-1&state=state-1"
+                + "&response_mode=direct_post&response_uri="
+                + URLEncoder.encode("http://localhost:" + verifier.getAddress().getPort() + "/response",
+                        StandardCharsets.UTF_8);
+        return dcql == null ? uri : uri + "&dcql_query=" + URLEncoder.encode(dcql, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the single presentation the verifier last received for the DCQL
+     * query {@code id}.
+     */
+    static String presented(String id) {
+        try {
+            Map<String, List<String>> vpToken = MAPPER.readValue(lastResponse.get().get("vp_token"),
+                    new TypeReference<>() {});
+            assertThat(vpToken.get(id)).hasSize(1);
+            return vpToken.get(id).getFirst();
+        } catch (IOException e) {
+            throw new AssertionError("vp_token is not a DCQL response: " + lastResponse.get(), e);
+        }
+    }
+
+    static Map<String, Object> payload(String jwt) {
+        try {
+            return MAPPER.readValue(Base64.getUrlDecoder().decode(jwt.split("\\.")[1]), new TypeReference<>() {});
+        } catch (IOException e) {
+            throw new AssertionError("Not a JWT: " + jwt, e);
+        }
+    }
+
+    // the token is signed again on every request, so only its status_list claim is comparable
+    private static Object statusList(String jwt) {
+        return payload(jwt).get("status_list");
+    }
+
+    /*
+     * Just enough of an OID4VCI issuer for one pre-authorized offer: any code
+     * and proof are accepted, and the credential is bound to the proof's key.
+     */
+    private static HttpServer startIssuer() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.createContext("/.well-known/openid-credential-issuer", exchange -> respond(exchange,
+                MAPPER.writeValueAsString(Map.of(
+                        "credential_issuer", issuerUrl(),
+                        "token_endpoint", issuerUrl() + "/token",
+                        "credential_endpoint", issuerUrl() + "/credential",
+                        "nonce_endpoint", issuerUrl() + "/nonce",
+                        "credential_configurations_supported", Map.of(OFFERED_VCT, Map.of(
+                                "format", "dc+sd-jwt",
+                                "vct", OFFERED_VCT,
+                                "cryptographic_binding_methods_supported", List.of("jwk"),
+                                "proof_types_supported", Map.of("jwt", Map.of(
+                                        "proof_signing_alg_values_supported", List.of("ES256")))))))));
+        server.createContext("/token", exchange -> respond(exchange,
+                "{\"access_token\":\"token-1\",\"token_type\":\"Bearer\",\"expires_in\":300}"));
+        server.createContext("/nonce", exchange -> respond(exchange, "{\"c_nonce\":\"c-nonce-1\"}"));
+        server.createContext("/credential", exchange -> {
+            Map<String, Object> request = MAPPER.readValue(exchange.getRequestBody(), new TypeReference<>() {});
+            String proof = ((List<?>) ((Map<?, ?>) request.get("proofs")).get("jwt")).getFirst().toString();
+            String credential;
+            try {
+                credential = new SdJwtCredentialBuilder()
+                        .vct(OFFERED_VCT)
+                        .issuer(issuerUrl())
+                        .claim("given_name", "Erika")
+                        .holderBindingKey(SignedJWT.parse(proof).getHeader().getJWK())
+                        .build();
+            } catch (ParseException e) {
+                throw new IOException("Malformed proof", e);
+            }
+            credentialsIssued.incrementAndGet();
+            respond(exchange, MAPPER.writeValueAsString(Map.of("credentials", List.of(Map.of("credential", credential)))));
+        });
+        server.start();
+        return server;
+    }
+
+    private static String issuerUrl() {
+        return "http://localhost:" + issuer.getAddress().getPort();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WalletRecordingTest {
+
+    @TempDir
+    Path dir;
+
+    private EmbeddedWallet wallet;
+
+    @BeforeEach
+    void startWallet() {
+        wallet = new EmbeddedWallet().start();
+    }
+
+    @AfterEach
+    void stopWallet() {
+        wallet.stop();
+    }
+
+    @Test
+    void replaysRecordedFlowWithoutWallet() throws Exception {
+        Path file = dir.resolve("flow.ndjson");
+        WalletClient recording = WalletRecording.record(wallet.client(), file);
+        recording.importCredential(new SdJwtCredentialBuilder().vct("urn:test:replay:1").claim("n", "1").build());
+        List<Credential> recorded = recording.getCredentials();
+        String trustList = recording.getTrustList();
+        wallet.stop();
+
+        assertThat(Files.readAllLines(file)).hasSize(3);
+
+        WalletClient replay = WalletRecording.replay(file);
+        replay.importCredential("anything");
+        assertThat(replay.getCredentials()).isEqualTo(recorded);
+        assertThat(replay.getTrustList()).isEqualTo(trustList);
+        // exhausted responses start over
+        assertThat(replay.getTrustList()).isEqualTo(trustList);
+    }
+
+    @Test
+    void replaysErrorStatuses() {
+        Path file = dir.resolve("errors.ndjson");
+        WalletClient recording = WalletRecording.record(wallet.client(), file);
+        assertThatThrownBy(() -> recording.deleteCredential("missing")).isInstanceOf(WalletClientException.class);
+
+        assertThatThrownBy(() -> WalletRecording.replay(file).deleteCredential("missing"))
+                .isInstanceOf(WalletClientException.class)
+                .satisfies(e -> assertThat(((WalletClientException) e).getStatusCode()).isEqualTo(404));
+    }
+
+    @Test
+    void matchesCredentialPathsByEndpoint() throws Exception {
+        Path file = dir.resolve("delete.ndjson");
+        WalletClient recording = WalletRecording.record(wallet.client(), file);
+        recording.importCredential(new SdJwtCredentialBuilder().vct("urn:test:replay:1").claim("n", "1").build());
+        String id = recording.getCredentials().stream()
+                .filter(credential -> "urn:test:replay:1".equals(credential.type()))
+                .findFirst().orElseThrow().id();
+        recording.deleteCredential(id);
+
+        assertThat(Files.readString(file)).contains("\"path\":\"/api/credentials/{id}\"")
+                .doesNotContain("\"path\":\"/api/credentials/" + id);
+        WalletRecording.replay(file).deleteCredential("some-other-id");
+    }
+
+    @Test
+    void failsForUnrecordedRequest() {
+        Path file = dir.resolve("empty.ndjson");
+        WalletRecording.record(wallet.client(), file);
+
+        assertThatThrownBy(() -> WalletRecording.replay(file).getStatusList())
+                .isInstanceOf(WalletClientException.class)
+                .hasMessageContaining("GET /api/statuslist");
+    }
+}
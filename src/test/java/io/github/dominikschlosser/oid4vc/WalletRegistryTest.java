@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.Network;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.lifecycle.Startable;
+import org.testcontainers.utility.MountableFile;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WalletRegistryTest {
+
+    @Test
+    void sharesStartedContainerUntilLastRelease() {
+        WalletRegistry registry = new WalletRegistry();
+        CountingStartable first = new CountingStartable();
+        CountingStartable second = new CountingStartable();
+
+        WalletRegistry.Lease<CountingStartable> a = registry.acquire("pid", first);
+        WalletRegistry.Lease<CountingStartable> b = registry.acquire("pid", second);
+
+        assertThat(b.container()).isSameAs(first);
+        assertThat(first.starts.get()).isOne();
+        assertThat(second.starts.get()).isZero();
+        assertThat(registry.stats()).isEqualTo(new WalletRegistry.Stats(1, 1, 0, 1));
+
+        a.close();
+        a.close();
+        assertThat(first.stops.get()).isZero();
+        b.close();
+        assertThat(first.stops.get()).isOne();
+        assertThat(registry.stats()).isEqualTo(new WalletRegistry.Stats(1, 1, 1, 0));
+    }
+
+    @Test
+    void keepsDifferentConfigurationsApart() {
+        WalletRegistry registry = new WalletRegistry();
+        CountingStartable pid = new CountingStartable();
+        CountingStartable statusList = new CountingStartable();
+
+        registry.acquire("pid", pid);
+        registry.acquire("pid+status-list", statusList);
+
+        assertThat(pid.starts.get()).isOne();
+        assertThat(statusList.starts.get()).isOne();
+        assertThat(registry.stats().running()).isEqualTo(2);
+    }
+
+    @Test
+    void lingeringContainerIsReusedOrStoppedLater() throws Exception {
+        WalletRegistry registry = new WalletRegistry().linger(Duration.ofMillis(200));
+        CountingStartable container = new CountingStartable();
+
+        registry.acquire("pid", container).close();
+        WalletRegistry.Lease<CountingStartable> again = registry.acquire("pid", new CountingStartable());
+        assertThat(again.container()).isSameAs(container);
+        Thread.sleep(300);
+        assertThat(container.stops.get()).isZero();
+
+        again.close();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (container.stops.get() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(container.stops.get()).isOne();
+        assertThat(registry.stats()).isEqualTo(new WalletRegistry.Stats(1, 1, 1, 0));
+    }
+
+    @Test
+    void configurationKeyIgnoresRandomNetworkAlias() {
+        assertThat(new Oid4vcContainer().withStatusList().configurationKey())
+                .isEqualTo(new Oid4vcContainer().withStatusList().configurationKey())
+                .isNotEqualTo(new Oid4vcContainer().configurationKey());
+    }
+
+    @Test
+    void configurationKeyCoversSharedNetworkAndStatusListBaseUrl() {
+        Network network = new UncreatableNetwork();
+
+        String key = new Oid4vcContainer().withSharedNetwork(network, "wallet").withStatusList().configurationKey();
+
+        assertThat(key).contains("[wallet]", "--base-url, http://wallet:8085");
+        assertThat(key).isEqualTo(new Oid4vcContainer().withSharedNetwork(network, "wallet").withStatusList()
+                        .configurationKey())
+                .isNotEqualTo(new Oid4vcContainer().withSharedNetwork(new UncreatableNetwork(), "wallet")
+                        .withStatusList().configurationKey())
+                .isNotEqualTo(new Oid4vcContainer().withStatusList().configurationKey());
+    }
+
+    @Test
+    void configurationKeyCoversLabelsAndCopiedFiles() {
+        String plain = new Oid4vcContainer().configurationKey();
+
+        assertThat(new Oid4vcContainer().withLabel("team", "a").configurationKey())
+                .isNotEqualTo(plain)
+                .isNotEqualTo(new Oid4vcContainer().withLabel("team", "b").configurationKey());
+        assertThat(new Oid4vcContainer().withCopyToContainer(Transferable.of("a"), "/etc/x").configurationKey())
+                .isNotEqualTo(plain)
+                .isEqualTo(new Oid4vcContainer().withCopyToContainer(Transferable.of("a"), "/etc/x").configurationKey())
+                .isNotEqualTo(new Oid4vcContainer().withCopyToContainer(Transferable.of("b"), "/etc/x")
+                        .configurationKey());
+        assertThat(new Oid4vcContainer()
+                .withCopyFileToContainer(MountableFile.forHostPath("pom.xml"), "/etc/pom.xml").configurationKey())
+                .isNotEqualTo(plain)
+                .contains("pom.xml");
+    }
+
+    private static final class UncreatableNetwork implements Network {
+
+        @Override
+        public String getId() {
+            throw new AssertionError("configurationKey() must not create the network");
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class CountingStartable implements Startable {
+
+        final AtomicInteger starts = new AtomicInteger();
+        final AtomicInteger stops = new AtomicInteger();
+
+        @Override
+        public void start() {
+            starts.incrementAndGet();
+        }
+
+        @Override
+        public void stop() {
+            stops.incrementAndGet();
+        }
+    }
+}
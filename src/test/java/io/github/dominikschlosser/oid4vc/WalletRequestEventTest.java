@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WalletRequestEventTest {
+
+    private static final String EVENT_NAME = "io.github.dominikschlosser.oid4vc.WalletRequest";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsOneEventPerRequest() throws Exception {
+        List<RecordedEvent> events;
+        try (EmbeddedWallet wallet = new EmbeddedWallet().start();
+             Recording recording = new Recording()) {
+            recording.enable(EVENT_NAME);
+            recording.start();
+
+            WalletClient client = wallet.client();
+            client.getCredentials();
+            assertThatThrownBy(() -> client.deleteCredential("missing")).isInstanceOf(WalletClientException.class);
+
+            recording.stop();
+            Path file = dir.resolve("wallet.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter(e -> e.getEventType().getName().equals(EVENT_NAME))
+                    .toList();
+        }
+
+        assertThat(events).hasSize(2);
+        RecordedEvent list = events.get(0);
+        assertThat(list.getString("method")).isEqualTo("GET");
+        assertThat(list.getString("endpoint")).isEqualTo("/api/credentials");
+        assertThat(list.getInt("status")).isEqualTo(200);
+        assertThat(list.getLong("responseBytes")).isPositive();
+        assertThat(list.getDuration()).isPositive();
+
+        RecordedEvent delete = events.get(1);
+        assertThat(delete.getString("endpoint")).isEqualTo("/api/credentials/{id}");
+        assertThat(delete.getInt("status")).isEqualTo(404);
+    }
+
+    @Test
+    void normalizesCredentialIds() {
+        assertThat(WalletRequestEvent.endpoint("/api/credentials/abc/status")).isEqualTo("/api/credentials/{id}/status");
+        assertThat(WalletRequestEvent.endpoint("/api/trustlist")).isEqualTo("/api/trustlist");
+    }
+}
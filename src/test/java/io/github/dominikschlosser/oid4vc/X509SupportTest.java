@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 Dominik Schlosser
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.github.dominikschlosser.oid4vc;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+
+class X509SupportTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ES256", "ES384", "ES512", "RS256", "EdDSA"})
+    void issuesSelfSignedCertificateWithDnsName(String algorithm) throws Exception {
+        JWK key = JwsSupport.generateKey(JWSAlgorithm.parse(algorithm));
+
+        X509Certificate certificate = X509Support.selfSigned(key, "verifier.example.com", Duration.ofDays(1));
+
+        assertThat(certificate.getSubjectX500Principal().getName()).isEqualTo("CN=verifier.example.com");
+        assertThat(certificate.getSubjectAlternativeNames()).containsExactly(List.of(2, "verifier.example.com"));
+        assertThat(certificate.getVersion()).isEqualTo(3);
+        assertThatCode(certificate::checkValidity).doesNotThrowAnyException();
+        assertThatCode(() -> certificate.verify(certificate.getPublicKey())).doesNotThrowAnyException();
+    }
+}